@@ -0,0 +1,85 @@
+package api;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+
+/// One HTTP call on the Flight Recorder timeline, from the client sending it to the
+/// response headers, so GC pauses, allocation and lock contention can be lined up
+/// against booking operations. [#INTERCEPTOR] emits it; while no recording enables
+/// the event it costs one check per call.
+@Name("booker.ApiCall")
+@Label("API Call")
+@Description("A Restful Booker HTTP call, up to its response headers")
+@Category({"Restful Booker", "HTTP"})
+@StackTrace(false)
+public class ApiCallEvent extends Event {
+
+    static final Interceptor INTERCEPTOR = ApiCallEvent::intercept;
+
+    @Label("Endpoint")
+    @Description("Retrofit method that made the call")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    @Label("URL")
+    String url;
+
+    @Label("Status")
+    @Description("HTTP status, 0 when the call failed without a response")
+    int status;
+
+    @Label("Bytes Out")
+    @DataAmount
+    long bytesOut;
+
+    @Label("Bytes In")
+    @Description("Response Content-Length, -1 when not known up front")
+    @DataAmount
+    long bytesIn;
+
+    @Label("Failure")
+    String failure;
+
+    private static Response intercept(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        ApiCallEvent event = new ApiCallEvent();
+        if (!event.isEnabled()) {
+            return chain.proceed(request);
+        }
+        event.begin();
+        try {
+            Response response = chain.proceed(request);
+            ResponseBody body = response.body();
+            event.status = response.code();
+            event.bytesIn = body == null ? 0 : body.contentLength();
+            return response;
+        } catch (IOException | RuntimeException e) {
+            event.failure = e.toString();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                RequestBody requestBody = request.body();
+                event.endpoint = EndpointMetricsInterceptor.endpointName(request);
+                event.method = request.method();
+                event.url = request.url().toString();
+                event.bytesOut = requestBody == null ? 0 : requestBody.contentLength();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package api;
+
+import com.google.gson.Gson;
+import config.TestConfig;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.aeonbits.owner.ConfigCache;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/// Suite-wide client context: one config, one Gson, one OkHttp client (and so
+/// one connection pool and dispatcher) shared by every test instance.
+/// Retrofit instances are cached per base URL and API proxies per base URL and API class.
+/// Nothing is released implicitly; call [#shutdown()] at the end of the run.
+public final class ApiContext {
+
+    private static ApiContext instance;
+
+    private final TestConfig config;
+    private final Gson gson;
+    private final ConnectionStats stats;
+    private final PhaseTimings timings;
+    private final OkHttpClient httpClient;
+    private final ExecutorService executor;
+    private final FlightRecording recording;
+    private final Map<String, Retrofit> retrofits = new ConcurrentHashMap<>();
+    private final Map<ApiKey, Object> apis = new ConcurrentHashMap<>();
+    private final Deque<Runnable> shutdownHooks = new ArrayDeque<>();
+
+    private ApiContext() {
+        this.config = ConfigCache.getOrCreate(TestConfig.class);
+        this.recording = FlightRecording.start(config);
+        this.gson = RetrofitClient.gson();
+        this.stats = new ConnectionStats();
+        this.timings = new PhaseTimings(stats, config.httpSlowCallMs());
+        this.httpClient = RetrofitClient.httpClient(config, timings);
+        this.executor = HttpExecutors.fanOut(config);
+    }
+
+    public static synchronized ApiContext get() {
+        if (instance == null) {
+            instance = new ApiContext();
+        }
+        return instance;
+    }
+
+    /// Runs registered hooks (last registered first) while the context is still
+    /// current, then releases the dispatcher threads and pooled connections.
+    /// A later [#get()] starts a fresh context.
+    public static void shutdown() {
+        ApiContext context;
+        synchronized (ApiContext.class) {
+            context = instance;
+        }
+        if (context == null) {
+            return;
+        }
+        context.runShutdownHooks();
+        synchronized (ApiContext.class) {
+            if (instance == context) {
+                instance = null;
+            }
+        }
+        context.release();
+    }
+
+    public TestConfig config() {
+        return config;
+    }
+
+    public Gson gson() {
+        return gson;
+    }
+
+    public OkHttpClient httpClient() {
+        return httpClient;
+    }
+
+    /// Executor for blocking fan-out; virtual threads when http.virtual.threads=true.
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    public ConnectionStats stats() {
+        return stats;
+    }
+
+    /// DNS, connect, TLS, write, first-byte and read times per endpoint, and the slow calls.
+    public PhaseTimings timings() {
+        return timings;
+    }
+
+    /// The adaptive limiter's live limit and queue depth; null unless http.limit is set.
+    public ConcurrencyLimitInterceptor limiter() {
+        for (Interceptor interceptor : httpClient.interceptors()) {
+            if (interceptor instanceof ConcurrencyLimitInterceptor) {
+                return (ConcurrencyLimitInterceptor) interceptor;
+            }
+        }
+        return null;
+    }
+
+    /// Per-endpoint metrics of every call so far; null when http.metrics=false.
+    public EndpointMetrics metrics() {
+        for (Interceptor interceptor : httpClient.interceptors()) {
+            if (interceptor instanceof EndpointMetricsInterceptor) {
+                return ((EndpointMetricsInterceptor) interceptor).suite();
+            }
+        }
+        return null;
+    }
+
+    /// Open response bodies and pool saturation; null unless http.leak.detection is set.
+    public ResponseLeakDetector leakDetector() {
+        for (Interceptor interceptor : httpClient.interceptors()) {
+            if (interceptor instanceof ResponseLeakDetector) {
+                return (ResponseLeakDetector) interceptor;
+            }
+        }
+        return null;
+    }
+
+    public <T> T api(Class<T> apiClass, String baseUrl) {
+        Object api = apis.computeIfAbsent(new ApiKey(baseUrl, apiClass),
+                key -> retrofit(baseUrl).create(apiClass));
+        return apiClass.cast(api);
+    }
+
+    public Retrofit retrofit(String baseUrl) {
+        return retrofits.computeIfAbsent(baseUrl, url -> new Retrofit.Builder()
+                .baseUrl(url)
+                .callFactory(request -> httpClient.newCall(tag(request)))
+                .addConverterFactory(new BookingIdsConverterFactory())
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .build());
+    }
+
+    /// Carries the calling thread's test state onto the call; see each class's tag.
+    private static Request tag(Request request) {
+        return ResponseLeakDetector.tag(EndpointMetrics.tag(ExchangeLog.tag(BookingBranch.tag(request))));
+    }
+
+    /// Registers work that must run before the client is torn down.
+    public void onShutdown(Runnable hook) {
+        synchronized (shutdownHooks) {
+            shutdownHooks.push(hook);
+        }
+    }
+
+    private void runShutdownHooks() {
+        while (true) {
+            Runnable hook;
+            synchronized (shutdownHooks) {
+                hook = shutdownHooks.poll();
+            }
+            if (hook == null) {
+                break;
+            }
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                System.err.println("Shutdown hook failed: " + e);
+            }
+        }
+    }
+
+    private void release() {
+        executor.shutdown();
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+        System.out.println("HTTP client stats: " + stats);
+        PhaseTimings.Report phases = timings.report();
+        if (phases.getSlowCallCount() > 0) {
+            System.out.println(phases.toText());
+        }
+        for (Interceptor interceptor : httpClient.interceptors()) {
+            if (interceptor instanceof FaultInjectionInterceptor) {
+                System.out.println("Injected faults: " + interceptor);
+            }
+            if (interceptor instanceof ConcurrencyLimitInterceptor) {
+                System.out.println("Concurrency limiter: " + interceptor);
+            }
+            if (interceptor instanceof ResponseLeakDetector) {
+                System.out.println("Response bodies: " + interceptor);
+            }
+        }
+        if (recording != null) {
+            recording.stop();
+        }
+    }
+
+    private static final class ApiKey {
+        private final String baseUrl;
+        private final Class<?> apiClass;
+
+        private ApiKey(String baseUrl, Class<?> apiClass) {
+            this.baseUrl = baseUrl;
+            this.apiClass = apiClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ApiKey)) {
+                return false;
+            }
+            ApiKey other = (ApiKey) o;
+            return baseUrl.equals(other.baseUrl) && apiClass.equals(other.apiClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(baseUrl, apiClass);
+        }
+    }
+}
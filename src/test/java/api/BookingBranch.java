@@ -0,0 +1,34 @@
+package api;
+
+import okhttp3.Request;
+
+/// Names the stand-in booking branch that calls from the current thread go to.
+/// Retrofit creates each call on the thread that makes it, so sync and async calls
+/// made by a test carry its branch, while calls from pool threads go to the shared state.
+public final class BookingBranch {
+
+    public static final String HEADER = "X-Booking-Branch";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private BookingBranch() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /// Sets the branch for this thread; null goes back to the shared state.
+    public static void set(String branch) {
+        if (branch == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(branch);
+        }
+    }
+
+    static Request tag(Request request) {
+        String branch = CURRENT.get();
+        return branch == null ? request : request.newBuilder().header(HEADER, branch).build();
+    }
+}
@@ -0,0 +1,110 @@
+package api;
+
+import com.google.gson.JsonParseException;
+import model.booking.BookingIds;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ByteString;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/// Reads a GET /booking body (`[{"bookingid":1},...]`) byte by byte from the
+/// response source into a [BookingIds]: no wrapper object, boxed Integer or field
+/// name String per id. The body is JSON of a fixed shape, so this scanner accepts
+/// only that shape (whitespace aside) and names anything else in its error.
+/// Duplicate and non-positive ids are found in the same pass with an [IntHashSet]
+/// that is dropped once the body is read.
+public final class BookingIdsConverterFactory extends Converter.Factory {
+
+    private static final ByteString BOOKINGID = ByteString.encodeUtf8("bookingid\"");
+
+    /// Bytes per `{"bookingid":N},` entry, for sizing the array from Content-Length.
+    private static final int BYTES_PER_ID = 16;
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        return type == BookingIds.class ? BookingIdsConverterFactory::read : null;
+    }
+
+    public static BookingIds read(ResponseBody body) throws IOException {
+        int expected = (int) Math.min(Math.max(body.contentLength() / BYTES_PER_ID, 16), 1 << 24);
+        int[] ids = new int[expected];
+        int size = 0;
+        int[] duplicates = new int[0];
+        int duplicateCount = 0;
+        int[] nonPositive = new int[0];
+        int nonPositiveCount = 0;
+        IntHashSet seen = new IntHashSet(expected);
+
+        try (BufferedSource source = body.source()) {
+            expect(source, '[');
+            boolean more = peek(source) != ']';
+            while (more) {
+                expect(source, '{');
+                expect(source, '"');
+                if (!source.rangeEquals(0, BOOKINGID)) {
+                    throw new JsonParseException("Unknown field '" + source.readUtf8(source.indexOf((byte) '"'))
+                            + "' in booking id list at id " + size);
+                }
+                source.skip(BOOKINGID.size());
+                expect(source, ':');
+                peek(source);
+                int id = Math.toIntExact(source.readDecimalLong());
+                expect(source, '}');
+
+                ids = ensure(ids, size);
+                ids[size++] = id;
+                if (!seen.add(id)) {
+                    duplicates = ensure(duplicates, duplicateCount);
+                    duplicates[duplicateCount++] = id;
+                }
+                if (id <= 0) {
+                    nonPositive = ensure(nonPositive, nonPositiveCount);
+                    nonPositive[nonPositiveCount++] = id;
+                }
+                more = peek(source) == ',';
+                if (more) {
+                    source.skip(1);
+                }
+            }
+            expect(source, ']');
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new JsonParseException("Bad booking id at id " + size + ": " + e.getMessage());
+        }
+        return new BookingIds(ids, size, Arrays.copyOf(duplicates, duplicateCount),
+                Arrays.copyOf(nonPositive, nonPositiveCount));
+    }
+
+    /// Skips whitespace and returns the next byte without consuming it.
+    private static byte peek(BufferedSource source) throws IOException {
+        while (true) {
+            if (!source.request(1)) {
+                throw new JsonParseException("Booking id list ends early");
+            }
+            byte next = source.getBuffer().getByte(0);
+            if (next != ' ' && next != '\n' && next != '\r' && next != '\t') {
+                return next;
+            }
+            source.skip(1);
+        }
+    }
+
+    private static void expect(BufferedSource source, char expected) throws IOException {
+        byte next = peek(source);
+        if (next != expected) {
+            throw new JsonParseException("Expected '" + expected + "' in booking id list, found '"
+                    + (char) next + "'");
+        }
+        source.skip(1);
+    }
+
+    private static int[] ensure(int[] values, int size) {
+        return size < values.length ? values : Arrays.copyOf(values, size + (size >> 1) + 1);
+    }
+}
@@ -0,0 +1,126 @@
+package api;
+
+/// How many calls [ConcurrencyLimitInterceptor] lets through at once, adjusted after
+/// every call from its round-trip time and whether the server pushed back. Not
+/// thread-safe; the interceptor calls it under its own lock.
+public interface ConcurrencyLimit {
+
+    int limit();
+
+    /// `rttNanos` of a finished call, the calls in flight when it started, and
+    /// whether it failed or came back 429/503.
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+
+    /// `aimd(initial,min,max,backoff)` or `gradient(initial,min,max)`.
+    static ConcurrencyLimit parse(String spec) {
+        String trimmed = spec.trim();
+        int open = trimmed.indexOf('(');
+        if (open < 0 || !trimmed.endsWith(")")) {
+            throw new IllegalArgumentException("Bad concurrency limit spec: " + spec);
+        }
+        String kind = trimmed.substring(0, open).trim();
+        String[] args = trimmed.substring(open + 1, trimmed.length() - 1).split(",");
+
+        switch (kind) {
+            case "aimd":
+                if (args.length != 4) {
+                    throw new IllegalArgumentException("Expected aimd(initial,min,max,backoff): " + spec);
+                }
+                return new Aimd(Integer.parseInt(args[0].trim()), Integer.parseInt(args[1].trim()),
+                        Integer.parseInt(args[2].trim()), Double.parseDouble(args[3].trim()));
+            case "gradient":
+                if (args.length != 3) {
+                    throw new IllegalArgumentException("Expected gradient(initial,min,max): " + spec);
+                }
+                return new Gradient(Integer.parseInt(args[0].trim()), Integer.parseInt(args[1].trim()),
+                        Integer.parseInt(args[2].trim()));
+            default:
+                throw new IllegalArgumentException("Unknown concurrency limit: " + spec);
+        }
+    }
+
+    /// Additive increase, multiplicative decrease: grows by about one per limit's
+    /// worth of successful calls, and cuts to `backoff` times the limit on a drop.
+    /// Reacts only to errors, so it finds the edge by hitting it.
+    final class Aimd implements ConcurrencyLimit {
+        private final int min;
+        private final int max;
+        private final double backoff;
+        private double limit;
+
+        Aimd(int initial, int min, int max, double backoff) {
+            this.min = min;
+            this.max = max;
+            this.backoff = backoff;
+            this.limit = initial;
+        }
+
+        @Override
+        public int limit() {
+            return (int) limit;
+        }
+
+        @Override
+        public void onSample(long rttNanos, int inFlight, boolean dropped) {
+            if (dropped) {
+                limit = Math.max(min, limit * backoff);
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(max, limit + 1 / limit);
+            }
+        }
+    }
+
+    /// Compares a short-term average round trip with a long-term one: when calls get
+    /// slower than usual the server is queueing, so the limit shrinks in proportion
+    /// (by at most half per sample) before errors appear. A headroom of sqrt(limit)
+    /// keeps probing upwards while latency holds.
+    final class Gradient implements ConcurrencyLimit {
+        private static final double SHORT_WINDOW = 10;
+        private static final double LONG_WINDOW = 600;
+        private static final double SMOOTHING = 0.2;
+        private static final double DROP_BACKOFF = 0.9;
+
+        private final int min;
+        private final int max;
+        private double limit;
+        private double shortRtt;
+        private double longRtt;
+
+        Gradient(int initial, int min, int max) {
+            this.min = min;
+            this.max = max;
+            this.limit = initial;
+        }
+
+        @Override
+        public int limit() {
+            return (int) limit;
+        }
+
+        @Override
+        public void onSample(long rttNanos, int inFlight, boolean dropped) {
+            if (dropped) {
+                limit = Math.max(min, limit * DROP_BACKOFF);
+                return;
+            }
+            if (longRtt == 0) {
+                shortRtt = rttNanos;
+                longRtt = rttNanos;
+            }
+            shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+            longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+            // After a lasting shift in latency, let the baseline catch up instead of
+            // shrinking for the whole long window.
+            if (longRtt > shortRtt * 2) {
+                longRtt = shortRtt * 2;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+            double target = limit * gradient + Math.sqrt(limit);
+            // Below half the limit, calls succeeding says nothing about room for more.
+            if (target > limit && inFlight * 2 < limit) {
+                return;
+            }
+            limit = Math.max(min, Math.min(max, limit * (1 - SMOOTHING) + target * SMOOTHING));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package api;
+
+import config.TestConfig;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/// Caps the calls in flight at a [ConcurrencyLimit] that adapts to the server, so
+/// load beyond what it can serve waits (or fails fast) in the client instead of
+/// piling up in the server's queues.
+///
+/// Configured from [TestConfig]: `http.limit` picks the algorithm, and
+/// `http.limit.policy` what happens to a call over the limit: `queue` waits for a
+/// slot, up to `http.limit.queue.size` waiting calls for at most
+/// `http.limit.queue.timeout.ms`; `shed` rejects it at once. A rejected call fails
+/// with [RejectedException] without reaching the network. Waiting happens on the
+/// caller's thread, which for enqueued calls is a dispatcher thread.
+///
+/// A call holds its slot until its response body is closed or fully read, and the
+/// round trip fed to the limit ends there too, so a slow body download counts as
+/// load. A body that is never closed keeps its slot, like it keeps its connection.
+public class ConcurrencyLimitInterceptor implements Interceptor {
+
+    public enum Policy {
+        QUEUE, SHED
+    }
+
+    /// A call the limiter turned away; nothing was sent.
+    public static class RejectedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private final ConcurrencyLimit limit;
+    private final Policy policy;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFree = lock.newCondition();
+    private int inFlight;
+    private int queued;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public ConcurrencyLimitInterceptor(TestConfig config) {
+        this(ConcurrencyLimit.parse(config.httpLimit()),
+                Policy.valueOf(config.httpLimitPolicy().trim().toUpperCase(Locale.ROOT)),
+                config.httpLimitQueueSize(),
+                TimeUnit.MILLISECONDS.toNanos(config.httpLimitQueueTimeoutMs()));
+    }
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimit limit, Policy policy, int maxQueued, long queueTimeoutNanos) {
+        this.limit = limit;
+        this.policy = policy;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutNanos = queueTimeoutNanos;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        int startedWith = acquire();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException | Error e) {
+            release(System.nanoTime() - start, startedWith, true);
+            throw e;
+        }
+        boolean pushedBack = response.code() == 429 || response.code() == 503;
+        ResponseBody body = response.body();
+        if (body == null) {
+            release(System.nanoTime() - start, startedWith, pushedBack);
+            return response;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(),
+                        Okio.buffer(new ForwardingSource(body.source()) {
+                            @Override
+                            public long read(Buffer sink, long byteCount) throws IOException {
+                                long read = super.read(sink, byteCount);
+                                if (read == -1) {
+                                    releaseOnce();
+                                }
+                                return read;
+                            }
+
+                            @Override
+                            public void close() throws IOException {
+                                try {
+                                    super.close();
+                                } finally {
+                                    releaseOnce();
+                                }
+                            }
+
+                            private void releaseOnce() {
+                                if (released.compareAndSet(false, true)) {
+                                    release(System.nanoTime() - start, startedWith, pushedBack);
+                                }
+                            }
+                        })))
+                .build();
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return limit.limit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Calls waiting for a slot right now.
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long accepted() {
+        return accepted.sum();
+    }
+
+    public long shed() {
+        return shed.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "limit=" + limit() + ", inFlight=" + inFlight() + ", queued=" + queued()
+                + ", accepted=" + accepted() + ", waited=" + waited.sum() + ", shed=" + shed()
+                + ", dropped=" + dropped.sum();
+    }
+
+    /// Takes a slot and returns the calls in flight including this one.
+    private int acquire() throws IOException {
+        lock.lock();
+        try {
+            // Waiting calls go first; a new call only takes a free slot if nobody waits.
+            if (queued == 0 && inFlight < limit.limit()) {
+                return admit();
+            }
+            if (policy == Policy.SHED || queued >= maxQueued) {
+                shed.increment();
+                throw new RejectedException("Over concurrency limit " + limit.limit() + " with "
+                        + inFlight + " in flight and " + queued + " queued");
+            }
+            queued++;
+            waited.increment();
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= limit.limit()) {
+                    if (remaining <= 0) {
+                        shed.increment();
+                        throw new RejectedException("No slot under concurrency limit " + limit.limit()
+                                + " within " + TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos) + " ms");
+                    }
+                    remaining = slotFree.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a concurrency slot");
+            } finally {
+                queued--;
+            }
+            return admit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int admit() {
+        accepted.increment();
+        return ++inFlight;
+    }
+
+    private void release(long rttNanos, int startedWith, boolean pushedBack) {
+        if (pushedBack) {
+            dropped.increment();
+        }
+        lock.lock();
+        try {
+            inFlight--;
+            int before = limit.limit();
+            limit.onSample(rttNanos, startedWith, pushedBack);
+            if (limit.limit() > before) {
+                slotFree.signalAll();
+            } else {
+                slotFree.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package api;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Counts calls against physical connections, so connection reuse is visible:
+/// every acquired connection that was not freshly opened came from the pool.
+public class ConnectionStats extends EventListener {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @Override
+    public void callStart(Call call) {
+        calls.increment();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+        opened.increment();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        acquired.increment();
+    }
+
+    @Override
+    public void callFailed(Call call, IOException e) {
+        failed.increment();
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long connectionsOpened() {
+        return opened.sum();
+    }
+
+    public long connectionsReused() {
+        return Math.max(0, acquired.sum() - opened.sum());
+    }
+
+    public long failedCalls() {
+        return failed.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "calls=" + calls()
+                + ", connections opened=" + connectionsOpened()
+                + ", reused=" + connectionsReused()
+                + ", failed=" + failedCalls();
+    }
+}
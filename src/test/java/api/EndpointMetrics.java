@@ -0,0 +1,122 @@
+package api;
+
+import load.LatencyHistogram;
+import okhttp3.Request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Calls, status classes, failures, bytes each way and latency per Retrofit method,
+/// for one scope: the whole suite or one test class. Recording never takes a lock:
+/// counters are [LongAdder]s, and each endpoint keeps one [LatencyHistogram] per
+/// stripe, picked by thread and created on first use, that are only merged when a
+/// [#snapshot()] is taken.
+///
+/// Like [ExchangeLog], the scope is per thread: calls are tagged with the scope
+/// their thread has started, so calls created on pool threads count for the suite only.
+public final class EndpointMetrics {
+
+    private static final ThreadLocal<EndpointMetrics> CURRENT = new ThreadLocal<>();
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 8) * 2 - 1);
+
+    private final String name;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public EndpointMetrics(String name) {
+        this.name = name;
+    }
+
+    /// Counts this thread's calls into `metrics` (as well as the suite) until [#stop()].
+    public static void start(EndpointMetrics metrics) {
+        CURRENT.set(metrics);
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static Request tag(Request request) {
+        EndpointMetrics metrics = CURRENT.get();
+        return metrics == null ? request : request.newBuilder().tag(EndpointMetrics.class, metrics).build();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    Endpoint endpoint(String method) {
+        Endpoint endpoint = endpoints.get(method);
+        return endpoint != null ? endpoint : endpoints.computeIfAbsent(method, key -> new Endpoint());
+    }
+
+    /// Totals so far, endpoints by name; calls still in flight are not included.
+    public EndpointMetricsSnapshot snapshot() {
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        names.sort(null);
+        EndpointMetricsSnapshot snapshot = new EndpointMetricsSnapshot(name,
+                (System.nanoTime() - startNanos) / 1e9);
+        for (String method : names) {
+            Endpoint endpoint = endpoints.get(method);
+            long[] statuses = new long[endpoint.statuses.length];
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = endpoint.statuses[i].sum();
+            }
+            snapshot.add(method, statuses, endpoint.failed.sum(), endpoint.bytesOut.sum(),
+                    endpoint.bytesIn.sum(), endpoint.latency());
+        }
+        return snapshot;
+    }
+
+    static final class Endpoint {
+        private final LongAdder[] statuses = {new LongAdder(), new LongAdder(), new LongAdder(),
+                new LongAdder(), new LongAdder()};
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final AtomicReferenceArray<LatencyHistogram> stripes = new AtomicReferenceArray<>(STRIPES);
+
+        void responded(int code, long sent, long micros) {
+            statuses[Math.min(Math.max(code / 100, 1), 5) - 1].increment();
+            bytesOut.add(sent);
+            stripe().record(micros);
+        }
+
+        void failed(long sent, long micros) {
+            failed.increment();
+            bytesOut.add(sent);
+            stripe().record(micros);
+        }
+
+        void received(long bytes) {
+            bytesIn.add(bytes);
+        }
+
+        private LatencyHistogram stripe() {
+            // Spread sequential thread ids over the stripes.
+            int index = (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 40) & (STRIPES - 1);
+            LatencyHistogram histogram = stripes.get(index);
+            if (histogram == null) {
+                stripes.compareAndSet(index, null, new LatencyHistogram());
+                histogram = stripes.get(index);
+            }
+            return histogram;
+        }
+
+        private LatencyHistogram latency() {
+            LatencyHistogram merged = new LatencyHistogram();
+            for (int i = 0; i < STRIPES; i++) {
+                LatencyHistogram stripe = stripes.get(i);
+                if (stripe != null) {
+                    merged.add(stripe);
+                }
+            }
+            return merged;
+        }
+    }
+}
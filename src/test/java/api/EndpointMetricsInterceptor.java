@@ -0,0 +1,90 @@
+package api;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import retrofit2.Invocation;
+
+import java.io.IOException;
+
+/// Records every call into the suite's [EndpointMetrics] and into the scope it was
+/// tagged with, under the name of the Retrofit method that made it (calls made
+/// without Retrofit are grouped by HTTP method). Latency runs until the response
+/// headers arrive; response bytes are taken from Content-Length, or counted as the
+/// caller reads the body when the length is unknown.
+public class EndpointMetricsInterceptor implements Interceptor {
+
+    private final EndpointMetrics suite = new EndpointMetrics("suite");
+
+    public EndpointMetrics suite() {
+        return suite;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String method = endpointName(request);
+        EndpointMetrics scope = request.tag(EndpointMetrics.class);
+        EndpointMetrics.Endpoint total = suite.endpoint(method);
+        EndpointMetrics.Endpoint scoped = scope == null ? null : scope.endpoint(method);
+        RequestBody requestBody = request.body();
+        long sent = requestBody == null ? 0 : Math.max(requestBody.contentLength(), 0);
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            long micros = (System.nanoTime() - start) / 1000;
+            total.failed(sent, micros);
+            if (scoped != null) {
+                scoped.failed(sent, micros);
+            }
+            throw e;
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        total.responded(response.code(), sent, micros);
+        if (scoped != null) {
+            scoped.responded(response.code(), sent, micros);
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        long length = body.contentLength();
+        if (length >= 0) {
+            total.received(length);
+            if (scoped != null) {
+                scoped.received(length);
+            }
+            return response;
+        }
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), length,
+                        Okio.buffer(new ForwardingSource(body.source()) {
+                            @Override
+                            public long read(Buffer sink, long byteCount) throws IOException {
+                                long read = super.read(sink, byteCount);
+                                if (read > 0) {
+                                    total.received(read);
+                                    if (scoped != null) {
+                                        scoped.received(read);
+                                    }
+                                }
+                                return read;
+                            }
+                        })))
+                .build();
+    }
+
+    static String endpointName(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        return invocation == null ? request.method() + " (no Retrofit method)" : invocation.method().getName();
+    }
+}
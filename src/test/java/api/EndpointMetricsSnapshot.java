@@ -0,0 +1,104 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import load.LatencyHistogram;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/// [EndpointMetrics] at one point in time, printable as a table and writable as
+/// JSON. Latencies are in milliseconds; `statuses` counts responses by class, 1xx
+/// to 5xx, and `failed` counts calls that got no response at all. Like a load
+/// report, the JSON keeps each histogram's buckets so snapshots can be merged.
+@Getter
+public class EndpointMetricsSnapshot {
+
+    @Getter
+    public static class Endpoint {
+        private final String name;
+        private final long calls;
+        private final long[] statuses;
+        private final long failed;
+        private final long bytesOut;
+        private final long bytesIn;
+        private final double latencyP50;
+        private final double latencyP90;
+        private final double latencyP99;
+        private final double latencyMax;
+        private final long[][] latencyHistogram;
+
+        Endpoint(String name, long[] statuses, long failed, long bytesOut, long bytesIn, LatencyHistogram latency) {
+            long calls = failed;
+            for (long count : statuses) {
+                calls += count;
+            }
+            this.name = name;
+            this.calls = calls;
+            this.statuses = statuses;
+            this.failed = failed;
+            this.bytesOut = bytesOut;
+            this.bytesIn = bytesIn;
+            this.latencyP50 = latency.percentile(50) / 1000.0;
+            this.latencyP90 = latency.percentile(90) / 1000.0;
+            this.latencyP99 = latency.percentile(99) / 1000.0;
+            this.latencyMax = latency.max() / 1000.0;
+            this.latencyHistogram = latency.buckets();
+        }
+    }
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final String scope;
+    private final double seconds;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+
+    EndpointMetricsSnapshot(String scope, double seconds) {
+        this.scope = scope;
+        this.seconds = seconds;
+    }
+
+    void add(String name, long[] statuses, long failed, long bytesOut, long bytesIn, LatencyHistogram latency) {
+        endpoints.add(new Endpoint(name, statuses, failed, bytesOut, bytesIn, latency));
+    }
+
+    public Endpoint endpoint(String name) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.name.equals(name)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "Endpoint metrics for %s over %.1f s%n", scope, seconds));
+        text.append(String.format(Locale.ROOT, "%-28s %7s %6s %6s %6s %6s %10s %10s %8s %8s %8s %8s%n",
+                "endpoint", "calls", "2xx", "3xx", "4xx", "5xx", "failed",
+                "KB out/in", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Endpoint endpoint : endpoints) {
+            text.append(String.format(Locale.ROOT,
+                    "%-28s %7d %6d %6d %6d %6d %10d %4d/%-5d %8.2f %8.2f %8.2f %8.2f%n",
+                    endpoint.name, endpoint.calls, endpoint.statuses[1], endpoint.statuses[2],
+                    endpoint.statuses[3], endpoint.statuses[4], endpoint.failed,
+                    endpoint.bytesOut / 1024, endpoint.bytesIn / 1024, endpoint.latencyP50,
+                    endpoint.latencyP90, endpoint.latencyP99, endpoint.latencyMax));
+        }
+        return text.toString();
+    }
+
+    public String toJson() {
+        return GSON.toJson(this);
+    }
+
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, toJson());
+    }
+}
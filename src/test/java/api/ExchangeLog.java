@@ -0,0 +1,178 @@
+package api;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/// The last `capacity` HTTP exchanges of one test, kept so they can be shown when
+/// it fails. Recording holds references and copies response bytes as the caller
+/// reads them (up to `bodyBytes`); nothing is decoded or formatted until [#render()].
+///
+/// Like [BookingBranch], the log is per thread: Retrofit creates each call on the
+/// thread that makes it, so a test's sync and async calls land in its log, while
+/// calls created on pool threads land in [#untagged()].
+public final class ExchangeLog {
+
+    private static final ThreadLocal<ExchangeLog> CURRENT = new ThreadLocal<>();
+    private static final ExchangeLog UNTAGGED = new ExchangeLog("untagged", 200, 4096);
+
+    private final String name;
+    private final int bodyBytes;
+    private final Exchange[] ring;
+    private long recorded;
+
+    public ExchangeLog(String name, int capacity, int bodyBytes) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("An exchange log keeps at least one exchange, got " + capacity);
+        }
+        this.name = name;
+        this.bodyBytes = bodyBytes;
+        this.ring = new Exchange[capacity];
+    }
+
+    /// Records this thread's calls into `log` until [#stop()].
+    public static void start(ExchangeLog log) {
+        CURRENT.set(log);
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /// Calls made with no test log, e.g. from the step fan-out pool, shared by all tests.
+    public static ExchangeLog untagged() {
+        return UNTAGGED;
+    }
+
+    static Request tag(Request request) {
+        ExchangeLog log = CURRENT.get();
+        return log == null ? request : request.newBuilder().tag(ExchangeLog.class, log).build();
+    }
+
+    synchronized Exchange begin(Request request) {
+        Exchange exchange = new Exchange(request, bodyBytes);
+        ring[(int) (recorded++ % ring.length)] = exchange;
+        return exchange;
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(recorded, ring.length);
+    }
+
+    /// Oldest first, with the bodies decoded as far as they were captured.
+    public String render() {
+        Exchange[] exchanges;
+        long total;
+        synchronized (this) {
+            total = recorded;
+            int size = (int) Math.min(recorded, ring.length);
+            exchanges = new Exchange[size];
+            for (int i = 0; i < size; i++) {
+                exchanges[i] = ring[(int) ((recorded - size + i) % ring.length)];
+            }
+        }
+        StringBuilder text = new StringBuilder(name).append(": ").append(total).append(" exchanges");
+        if (total > exchanges.length) {
+            text.append(", last ").append(exchanges.length).append(" shown");
+        }
+        text.append('\n');
+        for (Exchange exchange : exchanges) {
+            text.append('\n');
+            exchange.render(text);
+        }
+        return text.toString();
+    }
+
+    /// One call as the client saw it.
+    static final class Exchange {
+        private final Request request;
+        private final long startNanos = System.nanoTime();
+        private final int bodyBytes;
+        private final Buffer body = new Buffer();
+        private long bodyRead;
+        private Response response;
+        private IOException failure;
+        private long tookNanos;
+
+        private Exchange(Request request, int bodyBytes) {
+            this.request = request;
+            this.bodyBytes = bodyBytes;
+        }
+
+        synchronized void responded(Response response) {
+            this.response = response;
+            this.tookNanos = System.nanoTime() - startNanos;
+        }
+
+        synchronized void failed(IOException failure) {
+            this.failure = failure;
+            this.tookNanos = System.nanoTime() - startNanos;
+        }
+
+        /// Called with the bytes a read just added at the end of `sink`.
+        synchronized void read(Buffer sink, long count) {
+            long room = bodyBytes - body.size();
+            if (room > 0) {
+                sink.copyTo(body, sink.size() - count, Math.min(count, room));
+            }
+            bodyRead += count;
+        }
+
+        synchronized void render(StringBuilder text) {
+            text.append("--> ").append(request.method()).append(' ').append(request.url()).append('\n');
+            headers(text, request.headers());
+            RequestBody requestBody = request.body();
+            if (requestBody != null && !requestBody.isOneShot() && !requestBody.isDuplex()) {
+                try {
+                    Buffer sent = new Buffer();
+                    requestBody.writeTo(sent);
+                    text.append(decode(sent, Math.min(sent.size(), bodyBytes), requestBody.contentType()));
+                    if (sent.size() > bodyBytes) {
+                        text.append("... (").append(sent.size() - bodyBytes).append(" more bytes)");
+                    }
+                    text.append('\n');
+                } catch (IOException e) {
+                    text.append("(request body unavailable: ").append(e).append(")\n");
+                }
+            }
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(tookNanos);
+            if (failure != null) {
+                text.append("<-- FAILED after ").append(millis).append(" ms: ").append(failure).append('\n');
+                return;
+            }
+            if (response == null) {
+                text.append("<-- (no response yet)\n");
+                return;
+            }
+            text.append("<-- ").append(response.code()).append(' ').append(response.message())
+                    .append(" (").append(millis).append(" ms)\n");
+            headers(text, response.headers());
+            MediaType type = response.body() == null ? null : response.body().contentType();
+            text.append(decode(body.clone(), body.size(), type));
+            if (bodyRead > body.size()) {
+                text.append("... (").append(bodyRead - body.size()).append(" more bytes)");
+            }
+            text.append('\n');
+        }
+
+        private static void headers(StringBuilder text, Headers headers) {
+            for (int i = 0; i < headers.size(); i++) {
+                text.append(headers.name(i)).append(": ").append(headers.value(i)).append('\n');
+            }
+        }
+
+        private static String decode(Buffer bytes, long count, MediaType type) {
+            Charset charset = type == null ? StandardCharsets.UTF_8 : type.charset(StandardCharsets.UTF_8);
+            return bytes.snapshot((int) count).string(charset);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package api;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+
+/// Records every call into the calling test's [ExchangeLog] in place of logging
+/// it: request and response are kept by reference, and the response body is
+/// copied into the log only as far as the caller reads it, so a passing test pays
+/// a few allocations per call and no formatting or output.
+public class ExchangeRecorder implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        ExchangeLog log = request.tag(ExchangeLog.class);
+        ExchangeLog.Exchange exchange = (log == null ? ExchangeLog.untagged() : log).begin(request);
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            exchange.failed(e);
+            throw e;
+        }
+        exchange.responded(response);
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(),
+                        Okio.buffer(new ForwardingSource(body.source()) {
+                            @Override
+                            public long read(Buffer sink, long byteCount) throws IOException {
+                                long read = super.read(sink, byteCount);
+                                if (read > 0) {
+                                    exchange.read(sink, read);
+                                }
+                                return read;
+                            }
+                        })))
+                .build();
+    }
+}
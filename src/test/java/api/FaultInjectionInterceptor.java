@@ -0,0 +1,153 @@
+package api;
+
+import config.TestConfig;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+import retrofit2.Invocation;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ProtocolException;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Injects latency and failures per [RestfulBookerApi] endpoint, keyed by the
+/// Retrofit method name (`getBooking`, `createBooking`, ...; the async API shares them).
+///
+/// Configured from [TestConfig]: `faults.enabled`, `faults.seed`, `faults.default`
+/// for every endpoint, and `faults.<method>` to override one; see [FaultSpec] for the
+/// spec format. The n-th call to an endpoint always draws the same fate for a given
+/// seed, so a run can be replayed even though calls interleave differently.
+public class FaultInjectionInterceptor implements Interceptor {
+
+    private static final MediaType TEXT = MediaType.get("text/plain; charset=utf-8");
+
+    private final TestConfig config;
+    private final long seed;
+    private final FaultSpec defaults;
+    private final Map<String, FaultSpec> specs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> calls = new ConcurrentHashMap<>();
+
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder truncated = new LongAdder();
+
+    public FaultInjectionInterceptor(TestConfig config) {
+        this.config = config;
+        this.seed = config.faultsSeed();
+        this.defaults = FaultSpec.parse(config.faultsDefault());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Invocation invocation = chain.request().tag(Invocation.class);
+        if (invocation == null) {
+            return chain.proceed(chain.request());
+        }
+        String endpoint = invocation.method().getName();
+        FaultSpec spec = specs.computeIfAbsent(endpoint, this::spec);
+        if (spec == FaultSpec.NONE) {
+            return chain.proceed(chain.request());
+        }
+        long n = calls.computeIfAbsent(endpoint, key -> new AtomicLong()).getAndIncrement();
+        SplittableRandom random = new SplittableRandom(seed ^ endpoint.hashCode() * 0x9E3779B97F4A7C15L ^ n);
+
+        double delay = spec.getLatency().sampleMillis(random);
+        if (delay > 0) {
+            delayed.increment();
+            sleep(delay);
+        }
+        double roll = random.nextDouble();
+        if (roll < spec.getErrorRate()) {
+            errors.increment();
+            return new Response.Builder()
+                    .request(chain.request())
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(spec.getStatus())
+                    .message("Injected fault")
+                    .body(ResponseBody.create(TEXT, "Injected fault"))
+                    .build();
+        }
+        roll -= spec.getErrorRate();
+
+        Response response = chain.proceed(chain.request());
+        if (roll < spec.getResetRate()) {
+            resets.increment();
+            response.close();
+            throw new SocketException("Connection reset (injected)");
+        }
+        roll -= spec.getResetRate();
+        if (roll < spec.getTruncateRate() && response.body() != null) {
+            truncated.increment();
+            return truncate(response);
+        }
+        return response;
+    }
+
+    @Override
+    public String toString() {
+        return "delayed=" + delayed.sum() + ", errors=" + errors.sum()
+                + ", resets=" + resets.sum() + ", truncated=" + truncated.sum();
+    }
+
+    private FaultSpec spec(String endpoint) {
+        String spec = config.getProperty("faults." + endpoint);
+        if (spec != null) {
+            return FaultSpec.parse(spec);
+        }
+        return defaults;
+    }
+
+    /// Keeps the headers, including Content-Length, but delivers only half the body.
+    private static Response truncate(Response response) throws IOException {
+        ResponseBody body = response.body();
+        byte[] bytes = body.bytes();
+        Buffer half = new Buffer().write(bytes, 0, bytes.length / 2);
+        Source source = new Source() {
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                if (half.exhausted()) {
+                    throw new ProtocolException("unexpected end of stream (injected)");
+                }
+                return half.read(sink, byteCount);
+            }
+
+            @Override
+            public Timeout timeout() {
+                return Timeout.NONE;
+            }
+
+            @Override
+            public void close() {
+                half.clear();
+            }
+        };
+        BufferedSource truncated = Okio.buffer(source);
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), bytes.length, truncated))
+                .build();
+    }
+
+    private static void sleep(double millis) throws InterruptedIOException {
+        try {
+            TimeUnit.MICROSECONDS.sleep((long) (millis * 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during injected delay");
+        }
+    }
+}
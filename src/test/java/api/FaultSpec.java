@@ -0,0 +1,62 @@
+package api;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/// What [FaultInjectionInterceptor] does to one endpoint's calls:
+/// `latency=lognormal(80,0.6);error=0.01;status=503;reset=0.005;truncate=0.002`.
+/// Every part is optional; rates are probabilities per call.
+@Getter
+@Builder
+public class FaultSpec {
+
+    public static final FaultSpec NONE = FaultSpec.builder().build();
+
+    @Builder.Default
+    private final LatencyDistribution latency = LatencyDistribution.NONE;
+    /// Answer with [#status] instead of calling the server.
+    private final double errorRate;
+    @Builder.Default
+    private final int status = 503;
+    /// Let the server handle the call, then fail it as a connection reset.
+    private final double resetRate;
+    /// Cut the response body in half and fail the read, as a dropped connection would.
+    private final double truncateRate;
+
+    public static FaultSpec parse(String spec) {
+        if (spec.isBlank()) {
+            return NONE;
+        }
+        FaultSpecBuilder builder = FaultSpec.builder();
+        for (String part : spec.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Bad fault spec part: " + part);
+            }
+            String value = pair[1].trim();
+            switch (pair[0].trim()) {
+                case "latency":
+                    builder.latency(LatencyDistribution.parse(value));
+                    break;
+                case "error":
+                    builder.errorRate(Double.parseDouble(value));
+                    break;
+                case "status":
+                    builder.status(Integer.parseInt(value));
+                    break;
+                case "reset":
+                    builder.resetRate(Double.parseDouble(value));
+                    break;
+                case "truncate":
+                    builder.truncateRate(Double.parseDouble(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown fault spec part: " + part);
+            }
+        }
+        return builder.build();
+    }
+}
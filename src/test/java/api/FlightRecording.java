@@ -0,0 +1,54 @@
+package api;
+
+import config.TestConfig;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/// A Flight Recorder recording of the whole run, started with the [ApiContext]
+/// when jfr.record=true and dumped to jfr.dir when the context shuts down. Uses the
+/// jfr.settings configuration (`default` or `profile`) plus [ApiCallEvent] and the
+/// step events. The file name carries the process id, so load workers started by
+/// the coordinator each leave their own recording.
+final class FlightRecording {
+
+    private final Recording recording;
+    private final Path file;
+
+    private FlightRecording(Recording recording, Path file) {
+        this.recording = recording;
+        this.file = file;
+    }
+
+    /// Null unless jfr.record=true.
+    static FlightRecording start(TestConfig config) {
+        if (!config.jfrRecord()) {
+            return null;
+        }
+        try {
+            Path file = Path.of(config.jfrDir(), "booker-" + ProcessHandle.current().pid() + ".jfr");
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Recording recording = new Recording(Configuration.getConfiguration(config.jfrSettings()));
+            recording.setName("booker");
+            recording.enable(ApiCallEvent.class);
+            recording.enable("booker.Step");
+            recording.setToDisk(true);
+            recording.setDestination(file);
+            recording.start();
+            return new FlightRecording(recording, file);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot start flight recording with settings " + config.jfrSettings(), e);
+        }
+    }
+
+    /// Stops the recording, which writes it to its file.
+    void stop() {
+        recording.stop();
+        recording.close();
+        System.out.println("Flight recording: " + file.toAbsolutePath());
+    }
+}
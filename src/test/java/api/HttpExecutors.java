@@ -0,0 +1,77 @@
+package api;
+
+import config.TestConfig;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// Thread pools behind the HTTP client. With http.virtual.threads=true every task
+/// gets its own virtual thread, so blocking execute() calls cost no platform thread.
+public final class HttpExecutors {
+
+    private static final int PLATFORM_MAX_REQUESTS = 64;
+    private static final int VIRTUAL_MAX_REQUESTS = 4096;
+
+    private HttpExecutors() {
+    }
+
+    public static int maxRequests(TestConfig config) {
+        if (config.maxRequests() != null) {
+            return config.maxRequests();
+        }
+        return config.virtualThreads() ? VIRTUAL_MAX_REQUESTS : PLATFORM_MAX_REQUESTS;
+    }
+
+    public static int maxRequestsPerHost(TestConfig config) {
+        if (config.maxRequestsPerHost() != null) {
+            return config.maxRequestsPerHost();
+        }
+        return maxRequests(config);
+    }
+
+    /// Executor for OkHttp's Dispatcher; mirrors OkHttp's own cached pool in platform mode.
+    static ExecutorService dispatcher(TestConfig config) {
+        if (config.virtualThreads()) {
+            return virtualThreadPerTask();
+        }
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), daemonThreads("OkHttp Dispatcher"));
+    }
+
+    /// Executor for blocking fan-out in the step classes.
+    static ExecutorService fanOut(TestConfig config) {
+        if (config.virtualThreads()) {
+            return virtualThreadPerTask();
+        }
+        return Executors.newFixedThreadPool(
+                Math.min(maxRequestsPerHost(config), 4 * Runtime.getRuntime().availableProcessors()),
+                daemonThreads("booking-steps"));
+    }
+
+    private static ExecutorService virtualThreadPerTask() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("http.virtual.threads=true needs Java 21+, running on "
+                    + System.getProperty("java.version"), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
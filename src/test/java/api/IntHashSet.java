@@ -0,0 +1,83 @@
+package api;
+
+/// Open-addressing set of ints with linear probing, 4 bytes per slot and no
+/// boxing. Zero marks an empty slot, so zero itself is tracked on the side.
+final class IntHashSet {
+
+    private int[] slots;
+    private int used;
+    private boolean hasZero;
+
+    IntHashSet(int expected) {
+        slots = new int[tableSize(expected)];
+    }
+
+    /// Returns false if the value was already present.
+    boolean add(int value) {
+        if (value == 0) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int mask = slots.length - 1;
+        for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return false;
+            }
+            if (slots[i] == 0) {
+                slots[i] = value;
+                if (++used * 2 > slots.length) {
+                    grow();
+                }
+                return true;
+            }
+        }
+    }
+
+    boolean contains(int value) {
+        if (value == 0) {
+            return hasZero;
+        }
+        int mask = slots.length - 1;
+        for (int i = mix(value) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return used + (hasZero ? 1 : 0);
+    }
+
+    private void grow() {
+        int[] old = slots;
+        slots = new int[old.length * 2];
+        int mask = slots.length - 1;
+        for (int value : old) {
+            if (value != 0) {
+                int i = mix(value) & mask;
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = value;
+            }
+        }
+    }
+
+    /// Sequential ids would fill runs of neighbouring slots; spread them first.
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /// Power of two with the set at most half full.
+    private static int tableSize(int expected) {
+        int size = 16;
+        while (size < expected * 2L) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
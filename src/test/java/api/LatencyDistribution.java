@@ -0,0 +1,117 @@
+package api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/// Injected delay per call, in milliseconds. Parsed from the latency part of a
+/// fault spec; see [FaultInjectionInterceptor].
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = random -> 0;
+
+    double sampleMillis(SplittableRandom random);
+
+    /// `fixed(ms)`, `uniform(min,max)`, `lognormal(median,sigma)`, or `histogram(source)`
+    /// where source is inline `upper:count,...` buckets or a classpath or file path
+    /// with one `upper count` bucket per line (`#` starts a comment).
+    static LatencyDistribution parse(String spec) {
+        String trimmed = spec.trim();
+        int open = trimmed.indexOf('(');
+        if (open < 0 || !trimmed.endsWith(")")) {
+            throw new IllegalArgumentException("Bad latency spec: " + spec);
+        }
+        String kind = trimmed.substring(0, open).trim();
+        String args = trimmed.substring(open + 1, trimmed.length() - 1).trim();
+
+        switch (kind) {
+            case "fixed": {
+                double millis = Double.parseDouble(args);
+                return random -> millis;
+            }
+            case "uniform": {
+                double[] bounds = numbers(args, 2, spec);
+                return random -> bounds[0] + random.nextDouble() * (bounds[1] - bounds[0]);
+            }
+            case "lognormal": {
+                double[] params = numbers(args, 2, spec);
+                double mu = Math.log(params[0]);
+                double sigma = params[1];
+                return random -> Math.exp(mu + sigma * gaussian(random));
+            }
+            case "histogram":
+                return histogram(args.contains(":") ? args.replace(',', '\n').replace(':', ' ') : load(args));
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+    }
+
+    /// Picks a bucket by its recorded count, then a value uniformly inside it.
+    private static LatencyDistribution histogram(String buckets) {
+        List<double[]> parsed = new ArrayList<>();
+        for (String line : buckets.split("\n")) {
+            String content = line.replaceAll("#.*", "").trim();
+            if (content.isEmpty()) {
+                continue;
+            }
+            String[] parts = content.split("\\s+");
+            parsed.add(new double[]{Double.parseDouble(parts[0]), Double.parseDouble(parts[1])});
+        }
+        parsed.sort((a, b) -> Double.compare(a[0], b[0]));
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Empty latency histogram");
+        }
+        double[] uppers = new double[parsed.size()];
+        double[] cumulative = new double[parsed.size()];
+        double total = 0;
+        for (int i = 0; i < uppers.length; i++) {
+            uppers[i] = parsed.get(i)[0];
+            total += parsed.get(i)[1];
+            cumulative[i] = total;
+        }
+        double sum = total;
+        return random -> {
+            double pick = random.nextDouble() * sum;
+            int bucket = 0;
+            while (bucket < cumulative.length - 1 && cumulative[bucket] <= pick) {
+                bucket++;
+            }
+            double lower = bucket == 0 ? 0 : uppers[bucket - 1];
+            return lower + random.nextDouble() * (uppers[bucket] - lower);
+        };
+    }
+
+    private static String load(String source) {
+        try (InputStream resource = LatencyDistribution.class.getClassLoader().getResourceAsStream(source)) {
+            if (resource != null) {
+                return new String(resource.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            return Files.readString(Path.of(source));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read latency histogram " + source, e);
+        }
+    }
+
+    private static double[] numbers(String args, int count, String spec) {
+        String[] parts = args.split(",");
+        if (parts.length != count) {
+            throw new IllegalArgumentException("Bad latency spec: " + spec);
+        }
+        double[] numbers = new double[count];
+        for (int i = 0; i < count; i++) {
+            numbers[i] = Double.parseDouble(parts[i].trim());
+        }
+        return numbers;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+}
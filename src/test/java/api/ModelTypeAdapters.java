@@ -0,0 +1,379 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.ReflectionAccessFilter;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.auth.AuthRequest;
+import model.auth.AuthResponse;
+import model.booking.BookingDates;
+import model.booking.BookingResponse;
+import model.booking.CreateResponse;
+import model.booking.CreateUpdateRequest;
+import model.booking.GetBookingIDsResponse;
+import model.booking.PartialUpdateRequest;
+
+import java.io.IOException;
+import java.util.Map;
+
+/// Streaming [TypeAdapter]s for every class in `model.auth` and `model.booking`,
+/// so the client never falls back to Gson's reflective adapters for them.
+///
+/// Each adapter names the wire fields explicitly, which is where the Java and wire
+/// names meet (`BookingResponse.totalPrice` is `totalprice` on the wire). Reading
+/// a field the adapter does not know fails with a [JsonParseException] naming it,
+/// and [#REFLECTION] makes any model class left without an adapter fail on first
+/// use instead of silently mapping by field name. Null fields are left out when
+/// writing, as Gson does by default.
+public final class ModelTypeAdapters implements TypeAdapterFactory {
+
+    /// Blocks reflective access to the model packages; register with [ModelTypeAdapters].
+    public static final ReflectionAccessFilter REFLECTION = type ->
+            type.getName().startsWith("model.")
+                    ? ReflectionAccessFilter.FilterResult.BLOCK_ALL
+                    : ReflectionAccessFilter.FilterResult.INDECISIVE;
+
+    private static final TypeAdapter<BookingDates> BOOKING_DATES = new TypeAdapter<BookingDates>() {
+        @Override
+        public void write(JsonWriter out, BookingDates value) throws IOException {
+            out.beginObject();
+            out.name("checkin").value(value.getCheckin());
+            out.name("checkout").value(value.getCheckout());
+            out.endObject();
+        }
+
+        @Override
+        public BookingDates read(JsonReader in) throws IOException {
+            BookingDates.BookingDatesBuilder dates = BookingDates.builder();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "checkin":
+                        dates.checkin(nextString(in));
+                        break;
+                    case "checkout":
+                        dates.checkout(nextString(in));
+                        break;
+                    default:
+                        throw unknown(name, in, BookingDates.class);
+                }
+            }
+            in.endObject();
+            return dates.build();
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<CreateUpdateRequest> CREATE_UPDATE_REQUEST = new TypeAdapter<CreateUpdateRequest>() {
+        @Override
+        public void write(JsonWriter out, CreateUpdateRequest value) throws IOException {
+            out.beginObject();
+            out.name("firstname").value(value.getFirstname());
+            out.name("lastname").value(value.getLastname());
+            out.name("totalprice").value(value.getTotalprice());
+            out.name("depositpaid").value(value.getDepositpaid());
+            out.name("bookingdates");
+            BOOKING_DATES.write(out, value.getBookingdates());
+            out.name("additionalneeds").value(value.getAdditionalneeds());
+            out.endObject();
+        }
+
+        @Override
+        public CreateUpdateRequest read(JsonReader in) throws IOException {
+            CreateUpdateRequest.CreateUpdateRequestBuilder booking = CreateUpdateRequest.builder();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "firstname":
+                        booking.firstname(nextString(in));
+                        break;
+                    case "lastname":
+                        booking.lastname(nextString(in));
+                        break;
+                    case "totalprice":
+                        booking.totalprice(nextInteger(in));
+                        break;
+                    case "depositpaid":
+                        booking.depositpaid(nextBoolean(in));
+                        break;
+                    case "bookingdates":
+                        booking.bookingdates(BOOKING_DATES.read(in));
+                        break;
+                    case "additionalneeds":
+                        booking.additionalneeds(nextString(in));
+                        break;
+                    default:
+                        throw unknown(name, in, CreateUpdateRequest.class);
+                }
+            }
+            in.endObject();
+            return booking.build();
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<PartialUpdateRequest> PARTIAL_UPDATE_REQUEST = new TypeAdapter<PartialUpdateRequest>() {
+        @Override
+        public void write(JsonWriter out, PartialUpdateRequest value) throws IOException {
+            out.beginObject();
+            out.name("firstname").value(value.getFirstname());
+            out.name("lastname").value(value.getLastname());
+            out.name("totalprice").value(value.getTotalprice());
+            out.name("depositpaid").value(value.getDepositpaid());
+            out.name("bookingdates");
+            BOOKING_DATES.write(out, value.getBookingdates());
+            out.name("additionalneeds").value(value.getAdditionalneeds());
+            out.endObject();
+        }
+
+        @Override
+        public PartialUpdateRequest read(JsonReader in) throws IOException {
+            PartialUpdateRequest patch = new PartialUpdateRequest();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "firstname":
+                        patch.setFirstname(nextString(in));
+                        break;
+                    case "lastname":
+                        patch.setLastname(nextString(in));
+                        break;
+                    case "totalprice":
+                        patch.setTotalprice(nextInteger(in));
+                        break;
+                    case "depositpaid":
+                        patch.setDepositpaid(nextBoolean(in));
+                        break;
+                    case "bookingdates":
+                        patch.setBookingdates(BOOKING_DATES.read(in));
+                        break;
+                    case "additionalneeds":
+                        patch.setAdditionalneeds(nextString(in));
+                        break;
+                    default:
+                        throw unknown(name, in, PartialUpdateRequest.class);
+                }
+            }
+            in.endObject();
+            return patch;
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<BookingResponse> BOOKING_RESPONSE = new TypeAdapter<BookingResponse>() {
+        @Override
+        public void write(JsonWriter out, BookingResponse value) throws IOException {
+            out.beginObject();
+            out.name("firstname").value(value.getFirstname());
+            out.name("lastname").value(value.getLastname());
+            out.name("totalprice").value(value.getTotalPrice());
+            out.name("depositpaid").value(value.getDepositPaid());
+            out.name("bookingdates");
+            BOOKING_DATES.write(out, value.getBookingdates());
+            out.name("additionalneeds").value(value.getAdditionalNeeds());
+            out.endObject();
+        }
+
+        @Override
+        public BookingResponse read(JsonReader in) throws IOException {
+            BookingResponse booking = new BookingResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "firstname":
+                        booking.setFirstname(nextString(in));
+                        break;
+                    case "lastname":
+                        booking.setLastname(nextString(in));
+                        break;
+                    case "totalprice":
+                        booking.setTotalPrice(nextInteger(in));
+                        break;
+                    case "depositpaid":
+                        booking.setDepositPaid(nextBoolean(in));
+                        break;
+                    case "bookingdates":
+                        booking.setBookingdates(BOOKING_DATES.read(in));
+                        break;
+                    case "additionalneeds":
+                        booking.setAdditionalNeeds(nextString(in));
+                        break;
+                    default:
+                        throw unknown(name, in, BookingResponse.class);
+                }
+            }
+            in.endObject();
+            return booking;
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<CreateResponse> CREATE_RESPONSE = new TypeAdapter<CreateResponse>() {
+        @Override
+        public void write(JsonWriter out, CreateResponse value) throws IOException {
+            out.beginObject();
+            out.name("bookingid").value(value.getBookingid());
+            out.name("booking");
+            BOOKING_RESPONSE.write(out, value.getBooking());
+            out.endObject();
+        }
+
+        @Override
+        public CreateResponse read(JsonReader in) throws IOException {
+            CreateResponse created = new CreateResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "bookingid":
+                        created.setBookingid(nextInteger(in));
+                        break;
+                    case "booking":
+                        created.setBooking(BOOKING_RESPONSE.read(in));
+                        break;
+                    default:
+                        throw unknown(name, in, CreateResponse.class);
+                }
+            }
+            in.endObject();
+            return created;
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<GetBookingIDsResponse> BOOKING_ID = new TypeAdapter<GetBookingIDsResponse>() {
+        @Override
+        public void write(JsonWriter out, GetBookingIDsResponse value) throws IOException {
+            out.beginObject();
+            out.name("bookingid").value(value.getBookingid());
+            out.endObject();
+        }
+
+        @Override
+        public GetBookingIDsResponse read(JsonReader in) throws IOException {
+            GetBookingIDsResponse id = new GetBookingIDsResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (!name.equals("bookingid")) {
+                    throw unknown(name, in, GetBookingIDsResponse.class);
+                }
+                id.setBookingid(nextInteger(in));
+            }
+            in.endObject();
+            return id;
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<AuthRequest> AUTH_REQUEST = new TypeAdapter<AuthRequest>() {
+        @Override
+        public void write(JsonWriter out, AuthRequest value) throws IOException {
+            out.beginObject();
+            out.name("username").value(value.getUsername());
+            out.name("password").value(value.getPassword());
+            out.endObject();
+        }
+
+        @Override
+        public AuthRequest read(JsonReader in) throws IOException {
+            String username = null;
+            String password = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "username":
+                        username = nextString(in);
+                        break;
+                    case "password":
+                        password = nextString(in);
+                        break;
+                    default:
+                        throw unknown(name, in, AuthRequest.class);
+                }
+            }
+            in.endObject();
+            return new AuthRequest(username, password);
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<AuthResponse> AUTH_RESPONSE = new TypeAdapter<AuthResponse>() {
+        @Override
+        public void write(JsonWriter out, AuthResponse value) throws IOException {
+            out.beginObject();
+            out.name("token").value(value.getToken());
+            out.name("reason").value(value.getReason());
+            out.endObject();
+        }
+
+        @Override
+        public AuthResponse read(JsonReader in) throws IOException {
+            AuthResponse auth = new AuthResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "token":
+                        auth.setToken(nextString(in));
+                        break;
+                    case "reason":
+                        auth.setReason(nextString(in));
+                        break;
+                    default:
+                        throw unknown(name, in, AuthResponse.class);
+                }
+            }
+            in.endObject();
+            return auth;
+        }
+    }.nullSafe();
+
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS = Map.of(
+            BookingDates.class, BOOKING_DATES,
+            CreateUpdateRequest.class, CREATE_UPDATE_REQUEST,
+            PartialUpdateRequest.class, PARTIAL_UPDATE_REQUEST,
+            BookingResponse.class, BOOKING_RESPONSE,
+            CreateResponse.class, CREATE_RESPONSE,
+            GetBookingIDsResponse.class, BOOKING_ID,
+            AuthRequest.class, AUTH_REQUEST,
+            AuthResponse.class, AUTH_RESPONSE);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        return (TypeAdapter<T>) ADAPTERS.get(type.getRawType());
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static Integer nextInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+
+    private static Boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextBoolean();
+    }
+
+    private static JsonParseException unknown(String name, JsonReader in, Class<?> model) {
+        return new JsonParseException("Unknown field '" + name + "' for " + model.getSimpleName()
+                + " at " + in.getPath());
+    }
+}
@@ -0,0 +1,372 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import load.LatencyHistogram;
+import lombok.Getter;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Where each call's time went: DNS, TCP connect, TLS handshake, writing the
+/// request, waiting for the first response byte and reading the body, plus whether
+/// the call got a pooled connection. Phases are aggregated per Retrofit method (see
+/// [EndpointMetricsInterceptor]), and calls slower than `slowCallMillis` keep their
+/// own breakdown, the last [#SLOW_CALLS_KEPT] of them, so a cold-starting server
+/// shows up as slow connects or first bytes rather than just slow calls.
+///
+/// Each call gets its own listener, which also passes its events on to [ConnectionStats].
+public class PhaseTimings implements EventListener.Factory {
+
+    static final int SLOW_CALLS_KEPT = 100;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String[] PHASES = {"dns", "connect", "tls", "write", "ttfb", "read"};
+
+    private final ConnectionStats stats;
+    private final long slowCallMicros;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Deque<SlowCall> slowCalls = new ArrayDeque<>();
+    private long slowCallCount;
+
+    public PhaseTimings(ConnectionStats stats, long slowCallMillis) {
+        this.stats = stats;
+        this.slowCallMicros = slowCallMillis * 1000;
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        return new Listener();
+    }
+
+    /// Phase percentiles per endpoint and the slow calls kept so far.
+    public Report report() {
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        names.sort(null);
+        List<EndpointReport> reports = new ArrayList<>();
+        for (String name : names) {
+            reports.add(new EndpointReport(name, endpoints.get(name)));
+        }
+        synchronized (slowCalls) {
+            return new Report(slowCallMicros / 1000, slowCallCount, reports, new ArrayList<>(slowCalls));
+        }
+    }
+
+    private void record(Listener call, Request request, String outcome) {
+        String name = EndpointMetricsInterceptor.endpointName(request);
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(name, key -> new Endpoint());
+        }
+        long[] phases = call.phases();
+        for (int i = 0; i < PHASES.length; i++) {
+            if (phases[i] >= 0) {
+                endpoint.phases[i].record(phases[i]);
+            }
+        }
+        long total = (call.end - call.start) / 1000;
+        endpoint.total.record(total);
+        if (call.connected) {
+            endpoint.opened.increment();
+        } else if (call.acquired) {
+            endpoint.reused.increment();
+        }
+
+        if (total >= slowCallMicros) {
+            SlowCall slow = new SlowCall(name, request.method() + " " + request.url(), outcome,
+                    call.acquired && !call.connected, total, phases);
+            synchronized (slowCalls) {
+                slowCallCount++;
+                if (slowCalls.size() == SLOW_CALLS_KEPT) {
+                    slowCalls.removeFirst();
+                }
+                slowCalls.addLast(slow);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros < 0 ? -1 : micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LongAdder opened = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+
+        private Endpoint() {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /// Event times of one call in nanos, 0 until the event happens. Retries and
+    /// follow-ups within the call overwrite the earlier attempt's times.
+    private final class Listener extends EventListener {
+        private long start;
+        private long dnsStart;
+        private long dnsEnd;
+        private long connectStart;
+        private long secureStart;
+        private long secureEnd;
+        private long connectEnd;
+        private long writeStart;
+        private long writeEnd;
+        private long headersEnd;
+        private long bodyEnd;
+        private long end;
+        private boolean connected;
+        private boolean acquired;
+
+        /// Phase durations in micros, -1 for phases the call skipped.
+        long[] phases() {
+            long tcpEnd = secureStart != 0 ? secureStart : connectEnd;
+            return new long[]{
+                    span(dnsStart, dnsEnd),
+                    span(connectStart, tcpEnd),
+                    span(secureStart, secureEnd),
+                    span(writeStart, writeEnd),
+                    span(writeEnd, headersEnd),
+                    span(headersEnd, bodyEnd)};
+        }
+
+        private long span(long from, long to) {
+            return from == 0 || to < from ? -1 : (to - from) / 1000;
+        }
+
+        @Override
+        public void callStart(Call call) {
+            start = System.nanoTime();
+            stats.callStart(call);
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+            dnsEnd = System.nanoTime();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connectStart = System.nanoTime();
+            secureStart = 0;
+            secureEnd = 0;
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            secureEnd = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+            connectEnd = System.nanoTime();
+            connected = true;
+            stats.connectEnd(call, address, proxy, protocol);
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol,
+                                  IOException e) {
+            connectEnd = System.nanoTime();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            acquired = true;
+            stats.connectionAcquired(call, connection);
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            writeStart = System.nanoTime();
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            writeEnd = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            writeEnd = System.nanoTime();
+        }
+
+        /// The first byte is timed at the end of the headers: OkHttp fires
+        /// responseHeadersStart before it blocks reading them, so the wait for the
+        /// server falls between that event and this one.
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            headersEnd = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            bodyEnd = System.nanoTime();
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            end = System.nanoTime();
+            record(this, call.request(), "ok");
+        }
+
+        @Override
+        public void callFailed(Call call, IOException e) {
+            end = System.nanoTime();
+            stats.callFailed(call, e);
+            record(this, call.request(), e.toString());
+        }
+    }
+
+    @Getter
+    public static class Report {
+        private final long slowCallMillis;
+        private final long slowCallCount;
+        private final List<EndpointReport> endpoints;
+        private final List<SlowCall> slowCalls;
+
+        Report(long slowCallMillis, long slowCallCount, List<EndpointReport> endpoints, List<SlowCall> slowCalls) {
+            this.slowCallMillis = slowCallMillis;
+            this.slowCallCount = slowCallCount;
+            this.endpoints = endpoints;
+            this.slowCalls = slowCalls;
+        }
+
+        public String toText() {
+            StringBuilder text = new StringBuilder("Call phases, p50/p99 ms\n");
+            text.append(String.format(Locale.ROOT, "%-28s %7s %6s %6s", "endpoint", "calls", "new", "reused"));
+            for (String phase : PHASES) {
+                text.append(String.format(Locale.ROOT, " %15s", phase));
+            }
+            text.append(String.format(Locale.ROOT, " %15s%n", "total"));
+            for (EndpointReport endpoint : endpoints) {
+                text.append(String.format(Locale.ROOT, "%-28s %7d %6d %6d",
+                        endpoint.name, endpoint.calls, endpoint.opened, endpoint.reused));
+                for (int i = 0; i < PHASES.length; i++) {
+                    text.append(String.format(Locale.ROOT, " %15s", endpoint.phases.get(i)));
+                }
+                text.append(String.format(Locale.ROOT, " %15s%n", endpoint.total));
+            }
+            text.append(String.format(Locale.ROOT, "%nCalls over %d ms: %d", slowCallMillis, slowCallCount));
+            if (slowCallCount > slowCalls.size()) {
+                text.append(", last ").append(slowCalls.size()).append(" shown");
+            }
+            text.append('\n');
+            for (SlowCall call : slowCalls) {
+                text.append(call.toText()).append('\n');
+            }
+            return text.toString();
+        }
+
+        public String toJson() {
+            return GSON.toJson(this);
+        }
+
+        public void write(Path file) throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, toJson());
+        }
+    }
+
+    @Getter
+    public static class EndpointReport {
+        private final String name;
+        private final long calls;
+        private final long opened;
+        private final long reused;
+        /// `p50/p99` in ms per phase, in the order dns, connect, tls, write, ttfb, read; `-` if never seen.
+        private final List<String> phases = new ArrayList<>();
+        private final String total;
+
+        EndpointReport(String name, Endpoint endpoint) {
+            this.name = name;
+            this.calls = endpoint.total.count();
+            this.opened = endpoint.opened.sum();
+            this.reused = endpoint.reused.sum();
+            for (LatencyHistogram phase : endpoint.phases) {
+                phases.add(percentiles(phase));
+            }
+            this.total = percentiles(endpoint.total);
+        }
+
+        private static String percentiles(LatencyHistogram histogram) {
+            if (histogram.count() == 0) {
+                return "-";
+            }
+            return String.format(Locale.ROOT, "%.1f/%.1f",
+                    histogram.percentile(50) / 1000.0, histogram.percentile(99) / 1000.0);
+        }
+    }
+
+    @Getter
+    public static class SlowCall {
+        private final String endpoint;
+        private final String request;
+        private final String outcome;
+        private final boolean reused;
+        private final double totalMillis;
+        private final double dnsMillis;
+        private final double connectMillis;
+        private final double tlsMillis;
+        private final double writeMillis;
+        private final double ttfbMillis;
+        private final double readMillis;
+
+        SlowCall(String endpoint, String request, String outcome, boolean reused, long totalMicros, long[] phases) {
+            this.endpoint = endpoint;
+            this.request = request;
+            this.outcome = outcome;
+            this.reused = reused;
+            this.totalMillis = millis(totalMicros);
+            this.dnsMillis = millis(phases[0]);
+            this.connectMillis = millis(phases[1]);
+            this.tlsMillis = millis(phases[2]);
+            this.writeMillis = millis(phases[3]);
+            this.ttfbMillis = millis(phases[4]);
+            this.readMillis = millis(phases[5]);
+        }
+
+        public String toText() {
+            double[] values = {dnsMillis, connectMillis, tlsMillis, writeMillis, ttfbMillis, readMillis};
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%s %s: %.1f ms, %s connection, %s:",
+                    endpoint, request, totalMillis, reused ? "pooled" : "new", outcome));
+            for (int i = 0; i < PHASES.length; i++) {
+                if (values[i] >= 0) {
+                    text.append(String.format(Locale.ROOT, " %s %.1f", PHASES[i], values[i]));
+                }
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package api;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Debug mode (http.leak.detection=warn or fail) that tracks every response body the
+/// client hands out until it is closed. An unclosed body keeps its connection out
+/// of the pool, so reuse quietly stops and calls start opening new connections.
+/// Retrofit closes the bodies it converts, `Response<ResponseBody>` and error bodies
+/// included, since it buffers them; bodies escape through @Streaming methods,
+/// converters that do not close their input, and raw OkHttp calls.
+///
+/// Like [ExchangeLog], a body belongs to the test whose thread created the call, and
+/// [#tag(Request)] keeps that thread's stack, so a leak from an async call points at
+/// the test code rather than at the dispatcher.
+public final class ResponseLeakDetector implements Interceptor {
+
+    public enum Mode {
+        OFF, WARN, FAIL;
+
+        public static Mode parse(String mode) {
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /// The test a body was opened for; compared by identity.
+    public static final class Scope {
+        private final String name;
+
+        public Scope(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final int STACK_FRAMES = 30;
+
+    private final Mode mode;
+    private final Set<Tracked> open = ConcurrentHashMap.newKeySet();
+    private final LongAdder tracked = new LongAdder();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private volatile OkHttpClient client;
+
+    public ResponseLeakDetector(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /// The client whose pool [#poolGauge()] reports on.
+    public void watch(OkHttpClient client) {
+        this.client = client;
+    }
+
+    /// Attributes bodies of calls this thread creates to `scope` until [#stop()].
+    public static void start(Scope scope) {
+        CURRENT.set(scope);
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static Request tag(Request request) {
+        Scope scope = CURRENT.get();
+        return scope == null ? request
+                : request.newBuilder().tag(Origin.class, new Origin(scope, new Throwable("Call created here"))).build();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        Origin origin = request.tag(Origin.class);
+        if (origin == null) {
+            origin = new Origin(CURRENT.get(), new Throwable("Response received here"));
+        }
+        Tracked tracking = new Tracked(body, origin,
+                request.method() + " " + request.url() + " -> " + response.code());
+        open.add(tracking);
+        tracked.increment();
+        OkHttpClient watched = client;
+        if (watched != null) {
+            ConnectionPool pool = watched.connectionPool();
+            peakInUse.accumulateAndGet(pool.connectionCount() - pool.idleConnectionCount(), Math::max);
+        }
+        return response.newBuilder().body(tracking).build();
+    }
+
+    /// Bodies of `scope` (of any test when null) that are still open. Each is
+    /// returned once: it stays unclosed, but is no longer tracked.
+    public List<String> leaks(Scope scope) {
+        List<String> leaks = new ArrayList<>();
+        for (Tracked body : open) {
+            if ((scope == null || body.origin.scope == scope) && open.remove(body)) {
+                leaks.add(body.describe());
+            }
+        }
+        return leaks;
+    }
+
+    /// Leaks as text, with the pool gauge, for a test report.
+    public String report(List<String> leaks) {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "%d response bod%s never closed; %s%n", leaks.size(), leaks.size() == 1 ? "y" : "ies", poolGauge()));
+        for (String leak : leaks) {
+            text.append('\n').append(leak);
+        }
+        return text.toString();
+    }
+
+    /// Pool saturation: connections in use (held by a call or an open body) out of
+    /// all pooled connections, the peak seen when bodies were handed out, and the
+    /// dispatcher's running and queued calls.
+    public String poolGauge() {
+        OkHttpClient watched = client;
+        if (watched == null) {
+            return "pool not watched";
+        }
+        ConnectionPool pool = watched.connectionPool();
+        int total = pool.connectionCount();
+        int inUse = total - pool.idleConnectionCount();
+        return String.format(Locale.ROOT,
+                "connections in use %d of %d (peak %d), dispatcher running %d of %d, queued %d",
+                inUse, total, Math.max(peakInUse.get(), inUse), watched.dispatcher().runningCallsCount(),
+                watched.dispatcher().getMaxRequests(), watched.dispatcher().queuedCallsCount());
+    }
+
+    @Override
+    public String toString() {
+        return "tracked=" + tracked.sum() + ", open=" + open.size() + ", " + poolGauge();
+    }
+
+    private static final class Origin {
+        private final Scope scope;
+        private final Throwable stack;
+
+        private Origin(Scope scope, Throwable stack) {
+            this.scope = scope;
+            this.stack = stack;
+        }
+    }
+
+    private final class Tracked extends ResponseBody {
+        private final ResponseBody delegate;
+        private final Origin origin;
+        private final String call;
+        private BufferedSource source;
+
+        private Tracked(ResponseBody delegate, Origin origin, String call) {
+            this.delegate = delegate;
+            this.origin = origin;
+            this.call = call;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public synchronized BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                    @Override
+                    public void close() throws IOException {
+                        open.remove(Tracked.this);
+                        super.close();
+                    }
+                });
+            }
+            return source;
+        }
+
+        private String describe() {
+            StringBuilder text = new StringBuilder(call).append(", opened by ")
+                    .append(origin.scope == null ? "no test" : origin.scope).append('\n')
+                    .append(origin.stack.getMessage()).append('\n');
+            StackTraceElement[] frames = origin.stack.getStackTrace();
+            for (int i = 0; i < Math.min(frames.length, STACK_FRAMES); i++) {
+                text.append("\tat ").append(frames[i]).append('\n');
+            }
+            if (frames.length > STACK_FRAMES) {
+                text.append("\t... ").append(frames.length - STACK_FRAMES).append(" more\n");
+            }
+            return text.toString();
+        }
+    }
+}
@@ -22,6 +22,13 @@ public interface RestfulBookerApi {
                                                     @Query("checkin") String checkin,
                                                     @Query("checkout") String checkout);
 
+    /// The same list read as plain ids; see [BookingIdsConverterFactory].
+    @GET("booking")
+    Call<BookingIds> getBookingIDArray(@Query("firstname") String firstname,
+                                       @Query("lastname") String lastname,
+                                       @Query("checkin") String checkin,
+                                       @Query("checkout") String checkout);
+
     @GET("booking/{id}")
     Call<BookingResponse> getBooking(@Header("Accept") String accept,
                                      @Path("id") int id);
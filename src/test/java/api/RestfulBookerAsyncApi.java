@@ -0,0 +1,84 @@
+package api;
+
+import model.auth.AuthRequest;
+import model.auth.AuthResponse;
+import model.booking.*;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+import retrofit2.http.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/// Non-blocking twin of [RestfulBookerApi]: same endpoints, but every call is
+/// enqueued on the shared OkHttp dispatcher and completes a future instead of
+/// blocking the calling thread. Keep both interfaces in sync.
+public interface RestfulBookerAsyncApi {
+
+    ///Auth
+    @POST("auth")
+    CompletableFuture<Response<AuthResponse>> createToken(@Body AuthRequest body);
+
+    /// Booking
+    @GET("booking")
+    CompletableFuture<Response<List<GetBookingIDsResponse>>> getBookingIDs(@Query("firstname") String firstname,
+                                                                          @Query("lastname") String lastname,
+                                                                          @Query("checkin") String checkin,
+                                                                          @Query("checkout") String checkout);
+
+    /// The same list read as plain ids; see [BookingIdsConverterFactory].
+    @GET("booking")
+    CompletableFuture<Response<BookingIds>> getBookingIDArray(@Query("firstname") String firstname,
+                                                              @Query("lastname") String lastname,
+                                                              @Query("checkin") String checkin,
+                                                              @Query("checkout") String checkout);
+
+    @GET("booking/{id}")
+    CompletableFuture<Response<BookingResponse>> getBooking(@Header("Accept") String accept,
+                                                            @Path("id") int id);
+
+    @POST("booking")
+    CompletableFuture<Response<CreateResponse>> createBooking(@Header("Content-Type") String contentType,
+                                                              @Header("Accept") String accept,
+                                                              @Body CreateUpdateRequest body
+    );
+
+    @PUT("booking/{id}")
+    CompletableFuture<Response<BookingResponse>> updateBookingToken(@Header("Content-Type") String contentType,
+                                                                    @Header("Accept") String accept,
+                                                                    @Header("Cookie") String token,
+                                                                    @Path("id") int id,
+                                                                    @Body CreateUpdateRequest body);
+
+    @PUT("booking/{id}")
+    CompletableFuture<Response<BookingResponse>> updateBookingAuth(@Header("Content-Type") String contentType,
+                                                                   @Header("Accept") String accept,
+                                                                   @Header("Authorization") String auth,
+                                                                   @Path("id") int id,
+                                                                   @Body CreateUpdateRequest body);
+
+    @PATCH("booking/{id}")
+    CompletableFuture<Response<BookingResponse>> partialUpdateBookingToken(@Header("Content-Type") String contentType,
+                                                                           @Header("Accept") String accept,
+                                                                           @Header("Cookie") String token,
+                                                                           @Path("id") int id,
+                                                                           @Body PartialUpdateRequest body);
+
+    @PATCH("booking/{id}")
+    CompletableFuture<Response<BookingResponse>> partialUpdateBookingAuth(@Header("Content-Type") String contentType,
+                                                                          @Header("Accept") String accept,
+                                                                          @Header("Authorization") String auth,
+                                                                          @Path("id") int id,
+                                                                          @Body PartialUpdateRequest body);
+
+    @DELETE("booking/{id}")
+    CompletableFuture<Response<ResponseBody>> deleteBookingToken(@Header("Cookie") String token,
+                                                                 @Path("id") int id);
+
+    @DELETE("booking/{id}")
+    CompletableFuture<Response<ResponseBody>> deleteBookingAuth(@Header("Authorization") String auth,
+                                                                @Path("id") int id);
+
+    @GET("ping")
+    CompletableFuture<Response<ResponseBody>> ping();
+}
@@ -1,38 +1,88 @@
 package api;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import config.TestConfig;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.logging.HttpLoggingInterceptor;
-import org.aeonbits.owner.ConfigFactory;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 public class RetrofitClient {
 
+    /// Returns the suite-wide proxy for this API class and base URL; see [ApiContext].
     public static <T> T getClient(Class<T> apiClass, String baseUrl) {
+        return ApiContext.get().api(apiClass, baseUrl);
+    }
+
+    /// Models go through [ModelTypeAdapters] only; reflection on them is blocked.
+    static Gson gson() {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapters())
+                .addReflectionAccessFilter(ModelTypeAdapters.REFLECTION)
+                .create();
+    }
+
+    static OkHttpClient httpClient(TestConfig config, EventListener.Factory listeners) {
+
+        Dispatcher dispatcher =
+                new Dispatcher(HttpExecutors.dispatcher(config));
 
-        HttpLoggingInterceptor logging =
-                new HttpLoggingInterceptor();
+        dispatcher.setMaxRequests(HttpExecutors.maxRequests(config));
+        dispatcher.setMaxRequestsPerHost(HttpExecutors.maxRequestsPerHost(config));
 
-        logging.setLevel(HttpLoggingInterceptor.Level.BODY);
+        // Full bodies on every call are costly and only read when a test fails, so by
+        // default exchanges are recorded per test and shown on failure instead.
+        Interceptor logging = null;
+        if (config.httpLogging().equals("body")) {
+            HttpLoggingInterceptor bodyLogging = new HttpLoggingInterceptor();
+            bodyLogging.setLevel(HttpLoggingInterceptor.Level.BODY);
+            logging = bodyLogging;
+        } else if (config.httpLogExchanges() > 0) {
+            logging = new ExchangeRecorder();
+        }
 
-        OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(logging)
-                .addInterceptor(chain -> {
-                    Request request = chain.request().newBuilder()
-                            .addHeader("Content-Type", "application/json")
-                            .build();
-                    return chain.proceed(request);
-                })
-                .build();
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .eventListenerFactory(listeners);
 
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(baseUrl)
-                .client(client)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
+        // Outermost, so the body it tracks is the one the caller gets and must close.
+        ResponseLeakDetector.Mode leakDetection = ResponseLeakDetector.Mode.parse(config.httpLeakDetection());
+        ResponseLeakDetector leakDetector = null;
+        if (leakDetection != ResponseLeakDetector.Mode.OFF) {
+            leakDetector = new ResponseLeakDetector(leakDetection);
+            builder.addInterceptor(leakDetector);
+        }
+        builder.addInterceptor(ApiCallEvent.INTERCEPTOR);
+        if (logging != null) {
+            builder.addInterceptor(logging);
+        }
+        builder.addInterceptor(chain -> {
+            Request request = chain.request().newBuilder()
+                    .addHeader("Content-Type", "application/json")
+                    .build();
+            return chain.proceed(request);
+        });
 
-        return retrofit.create(apiClass);
+        // Outside the limiter and fault injection, so latency and failures are what the caller sees.
+        if (config.httpMetrics()) {
+            builder.addInterceptor(new EndpointMetricsInterceptor());
+        }
+        // Inside the logging, so shed calls show in the log as failed exchanges, and
+        // outside fault injection, so injected latency and errors drive the limit.
+        if (!config.httpLimit().isBlank()) {
+            builder.addInterceptor(new ConcurrencyLimitInterceptor(config));
+        }
+        // Last application interceptor, so the log shows the injected outcome.
+        if (config.faultsEnabled()) {
+            builder.addInterceptor(new FaultInjectionInterceptor(config));
+        }
+        OkHttpClient client = builder.build();
+        if (leakDetector != null) {
+            leakDetector.watch(client);
+        }
+        return client;
     }
 }
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/// Runs every benchmark in this package with the GC profiler, so each result has
+/// throughput next to `gc.alloc.rate.norm` (bytes allocated per operation), and
+/// writes them to target/jmh-result.json.
+///
+/// The package only compiles with the benchmarks profile, which adds JMH:
+/// `mvn -Pbenchmarks test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt`,
+/// then `java -cp target/test-classes:$(cat target/cp.txt) benchmarks.Benchmarks`.
+/// Standard JMH arguments narrow or tune the run, e.g. `ClientCall -t 8 -f 2`.
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(Benchmarks.class.getPackageName() + "\\..*Benchmark");
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json");
+        }
+        options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
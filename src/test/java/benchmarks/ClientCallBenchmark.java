@@ -0,0 +1,112 @@
+package benchmarks;
+
+import api.ApiContext;
+import api.RestfulBookerApi;
+import data.BookingData;
+import model.booking.BookingIds;
+import model.booking.BookingResponse;
+import model.booking.CreateResponse;
+import model.booking.GetBookingIDsResponse;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import server.StandInServer;
+import store.IndexedBookingStore;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/// One call through the suite's full client stack (Retrofit, Gson, the OkHttp
+/// interceptors and connection pool from [ApiContext]) against a [StandInServer]
+/// on loopback, so the numbers are client cost plus a near-free server.
+/// `okHttpGetBooking` sends the same request without Retrofit or Gson, as the
+/// baseline the Retrofit calls are compared with.
+///
+/// The stack is measured as configured, so http.logging decides whether calls go
+/// through the exchange recorder (the default) or body logging; with body logging
+/// the logger's console output is silenced so it does not dominate the run.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientCallBenchmark {
+
+    private static final String ACCEPT = "application/json";
+    private static final int BOOKINGS = 1_000;
+
+    private StandInServer server;
+    private RestfulBookerApi api;
+    private OkHttpClient httpClient;
+    private Request getBooking;
+    private BookingData bookingData;
+
+    @Setup
+    public void setUp() throws IOException {
+        Logger.getLogger(OkHttpClient.class.getName()).setLevel(Level.WARNING);
+
+        IndexedBookingStore store = new IndexedBookingStore();
+        for (int i = 0; i < BOOKINGS; i++) {
+            store.create(new BookingData().defaultBooking());
+        }
+        server = new StandInServer(store, "admin", "password123").start(0);
+
+        ApiContext context = ApiContext.get();
+        api = context.api(RestfulBookerApi.class, server.baseUrl());
+        httpClient = context.httpClient();
+        getBooking = new Request.Builder()
+                .url(server.baseUrl() + "booking/1")
+                .header("Accept", ACCEPT)
+                .build();
+        bookingData = new BookingData();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ApiContext.shutdown();
+        server.stop();
+    }
+
+    @Benchmark
+    public BookingResponse retrofitGetBooking() throws IOException {
+        return api.getBooking(ACCEPT, 1).execute().body();
+    }
+
+    @Benchmark
+    public CreateResponse retrofitCreateBooking() throws IOException {
+        return api.createBooking(ACCEPT, ACCEPT, bookingData.defaultBooking()).execute().body();
+    }
+
+    /// GET /booking with no filter, so the response lists all the preloaded ids.
+    @Benchmark
+    public List<GetBookingIDsResponse> retrofitGetBookingIds() throws IOException {
+        return api.getBookingIDs(null, null, null, null).execute().body();
+    }
+
+    @Benchmark
+    public BookingIds retrofitGetBookingIdArray() throws IOException {
+        return api.getBookingIDArray(null, null, null, null).execute().body();
+    }
+
+    @Benchmark
+    public String okHttpGetBooking() throws IOException {
+        try (Response response = httpClient.newCall(getBooking).execute()) {
+            return response.body().string();
+        }
+    }
+}
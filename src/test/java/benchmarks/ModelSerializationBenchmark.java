@@ -0,0 +1,120 @@
+package benchmarks;
+
+import api.ApiContext;
+import api.BookingIdsConverterFactory;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import data.BookingData;
+import model.booking.BookingIds;
+import model.booking.BookingResponse;
+import model.booking.CreateResponse;
+import model.booking.CreateUpdateRequest;
+import model.booking.GetBookingIDsResponse;
+import model.booking.PartialUpdateRequest;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// Gson cost of the booking models with the client's own [Gson] instance: the
+/// request bodies the tests send and the responses they read, including the id
+/// list from GET /booking at several sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelSerializationBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final Type ID_LIST = new TypeToken<List<GetBookingIDsResponse>>() {}.getType();
+
+    private Gson gson;
+    private CreateUpdateRequest createUpdateRequest;
+    private PartialUpdateRequest partialUpdateRequest;
+    private String bookingResponse;
+    private String createResponse;
+
+    /// Size of the GET /booking response; the live service returns thousands.
+    @State(Scope.Benchmark)
+    public static class IdList {
+        @Param({"10", "1000", "100000"})
+        int ids;
+
+        String json;
+        byte[] bytes;
+
+        @Setup
+        public void setUp(ModelSerializationBenchmark models) {
+            List<GetBookingIDsResponse> list = new ArrayList<>(ids);
+            for (int id = 1; id <= ids; id++) {
+                GetBookingIDsResponse entry = new GetBookingIDsResponse();
+                entry.setBookingid(id);
+                list.add(entry);
+            }
+            json = models.gson.toJson(list);
+            bytes = json.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        gson = ApiContext.get().gson();
+        createUpdateRequest = new BookingData().defaultBooking();
+        partialUpdateRequest = new PartialUpdateRequest();
+        partialUpdateRequest.setFirstname("Vlad");
+        partialUpdateRequest.setTotalprice(222);
+        partialUpdateRequest.setAdditionalneeds("Dinner");
+
+        bookingResponse = gson.toJson(createUpdateRequest);
+        createResponse = "{\"bookingid\":1,\"booking\":" + bookingResponse + "}";
+    }
+
+    @Benchmark
+    public String serializeCreateUpdateRequest() {
+        return gson.toJson(createUpdateRequest);
+    }
+
+    @Benchmark
+    public String serializePartialUpdateRequest() {
+        return gson.toJson(partialUpdateRequest);
+    }
+
+    @Benchmark
+    public BookingResponse deserializeBookingResponse() {
+        return gson.fromJson(bookingResponse, BookingResponse.class);
+    }
+
+    @Benchmark
+    public CreateResponse deserializeCreateResponse() {
+        return gson.fromJson(createResponse, CreateResponse.class);
+    }
+
+    @Benchmark
+    public List<GetBookingIDsResponse> deserializeBookingIds(IdList idList) {
+        return gson.fromJson(idList.json, ID_LIST);
+    }
+
+    /// The same list through the primitive converter, body creation included.
+    @Benchmark
+    public BookingIds readBookingIdArray(IdList idList) throws IOException {
+        return BookingIdsConverterFactory.read(ResponseBody.create(JSON, idList.bytes));
+    }
+}
@@ -1,12 +1,234 @@
 package config;
 
+import org.aeonbits.owner.Accessible;
 import org.aeonbits.owner.Config;
+import org.aeonbits.owner.Mutable;
 
+@Config.LoadPolicy(Config.LoadType.MERGE)
 @Config.Sources({
+        "system:properties",
         "classpath:application.properties"
 })
-public interface TestConfig extends Config {
+public interface TestConfig extends Config, Mutable, Accessible {
 
     @Key("base.url")
     String baseUrl();
+
+    /// Runs dispatcher calls and step fan-out on virtual threads (Java 21+).
+    @Key("http.virtual.threads")
+    @DefaultValue("false")
+    boolean virtualThreads();
+
+    /// Unset means 64 on platform threads and 4096 on virtual threads.
+    @Key("http.max.requests")
+    Integer maxRequests();
+
+    /// Unset means the same as http.max.requests; the whole suite talks to one host.
+    @Key("http.max.requests.per.host")
+    Integer maxRequestsPerHost();
+
+    /// `recorder` keeps each test's last exchanges and shows them only if it fails;
+    /// `body` logs every request and response body as it happens.
+    @Key("http.logging")
+    @DefaultValue("recorder")
+    String httpLogging();
+
+    /// Exchanges kept per test by the recorder; 0 turns the recorder off.
+    @Key("http.log.exchanges")
+    @DefaultValue("50")
+    int httpLogExchanges();
+
+    /// Body bytes kept per request and response by the recorder.
+    @Key("http.log.body.bytes")
+    @DefaultValue("8192")
+    int httpLogBodyBytes();
+
+    /// Adaptive cap on calls in flight, `aimd(initial,min,max,backoff)` or
+    /// `gradient(initial,min,max)`; empty leaves only the dispatcher limits.
+    @Key("http.limit")
+    @DefaultValue("")
+    String httpLimit();
+
+    /// `queue` makes calls over the limit wait for a slot, `shed` rejects them at once.
+    @Key("http.limit.policy")
+    @DefaultValue("queue")
+    String httpLimitPolicy();
+
+    /// Calls waiting beyond this are rejected even under the queue policy.
+    @Key("http.limit.queue.size")
+    @DefaultValue("1000")
+    int httpLimitQueueSize();
+
+    @Key("http.limit.queue.timeout.ms")
+    @DefaultValue("1000")
+    long httpLimitQueueTimeoutMs();
+
+    /// Counts calls, status classes, bytes and latency per Retrofit method.
+    @Key("http.metrics")
+    @DefaultValue("true")
+    boolean httpMetrics();
+
+    /// Where the per-class and suite endpoint metrics are written as JSON.
+    @Key("http.metrics.dir")
+    @DefaultValue("target/endpoint-metrics")
+    String httpMetricsDir();
+
+    /// Calls taking longer keep their DNS, connect, TLS, write, first-byte and read times.
+    @Key("http.slow.call.ms")
+    @DefaultValue("1000")
+    long httpSlowCallMs();
+
+    /// Track response bodies until closed: `off`, `warn` (report unclosed ones per
+    /// test) or `fail` (also fail the test, and the run for bodies opened outside tests).
+    @Key("http.leak.detection")
+    @DefaultValue("off")
+    String httpLeakDetection();
+
+    /// Record the whole run with Flight Recorder, including the API call and step events.
+    @Key("jfr.record")
+    @DefaultValue("false")
+    boolean jfrRecord();
+
+    /// Built-in JFR configuration for the recording: `default` or `profile`.
+    @Key("jfr.settings")
+    @DefaultValue("profile")
+    String jfrSettings();
+
+    @Key("jfr.dir")
+    @DefaultValue("target/jfr")
+    String jfrDir();
+
+    /// How long AuthSteps reuses a token before asking POST /auth again.
+    @Key("auth.token.ttl.seconds")
+    @DefaultValue("600")
+    long tokenTtlSeconds();
+
+    /// Bookings the fixture pool keeps ready for tests.
+    @Key("fixtures.pool.size")
+    @DefaultValue("24")
+    int fixturePoolSize();
+
+    /// Fresh bookings left before the pool refills in the background.
+    @Key("fixtures.pool.low.watermark")
+    @DefaultValue("8")
+    int fixturePoolLowWatermark();
+
+    /// Bookings shared between READ_ONLY leases; 0 gives each lease its own.
+    @Key("fixtures.pool.read.only")
+    @DefaultValue("4")
+    int fixturePoolReadOnly();
+
+    @Key("auth.login")
+    @DefaultValue("admin")
+    String login();
+
+    @Key("auth.password")
+    @DefaultValue("password123")
+    String password();
+
+    /// Delete every booking the run created when the suite finishes.
+    @Key("cleanup.enabled")
+    @DefaultValue("true")
+    boolean cleanupEnabled();
+
+    /// Deletes in flight at once during cleanup.
+    @Key("cleanup.concurrency")
+    @DefaultValue("8")
+    int cleanupConcurrency();
+
+    /// Run against the in-process stand-in server instead of base.url.
+    @Key("booker.stand.in")
+    @DefaultValue("false")
+    boolean standIn();
+
+    /// 0 picks a free loopback port.
+    @Key("booker.stand.in.port")
+    @DefaultValue("0")
+    int standInPort();
+
+    /// Directory for the stand-in's booking journal; empty keeps its state in memory only.
+    @Key("booker.stand.in.journal.dir")
+    @DefaultValue("")
+    String standInJournalDir();
+
+    /// Give every test its own copy-on-write branch of the stand-in's bookings,
+    /// dropped when the test ends. Takes precedence over the journal.
+    @Key("booker.stand.in.isolation")
+    @DefaultValue("false")
+    boolean standInIsolation();
+
+    /// Bookings seeded into the stand-in before the run starts.
+    @Key("booker.stand.in.preload")
+    @DefaultValue("0")
+    int standInPreload();
+
+    /// Install [api.FaultInjectionInterceptor]; per-endpoint specs go in faults.<method>.
+    @Key("faults.enabled")
+    @DefaultValue("false")
+    boolean faultsEnabled();
+
+    @Key("faults.seed")
+    @DefaultValue("42")
+    long faultsSeed();
+
+    /// Fault spec for endpoints without their own, e.g. latency=lognormal(80,0.6);error=0.01.
+    @Key("faults.default")
+    @DefaultValue("")
+    String faultsDefault();
+
+    /// Open-model arrival rate for the load tests, in calls per second.
+    @Key("load.rate")
+    @DefaultValue("50")
+    double loadRate();
+
+    @Key("load.duration.seconds")
+    @DefaultValue("10")
+    int loadDurationSeconds();
+
+    /// Weighted operation mix: getBooking, createBooking, getBookingIds.
+    @Key("load.mix")
+    @DefaultValue("getBooking=6,createBooking=2,getBookingIds=2")
+    String loadMix();
+
+    @Key("load.max.outstanding")
+    @DefaultValue("10000")
+    int loadMaxOutstanding();
+
+    @Key("load.seed")
+    @DefaultValue("42")
+    long loadSeed();
+
+    @Key("load.report.dir")
+    @DefaultValue("target/load")
+    String loadReportDir();
+
+    /// The load test fails above this share of failed or dropped calls.
+    @Key("load.max.error.rate")
+    @DefaultValue("0.01")
+    double loadMaxErrorRate();
+
+    /// Scenario workload: "rate" (scenario starts per second) or "concurrency" (virtual users).
+    @Key("load.model")
+    @DefaultValue("rate")
+    String loadModel();
+
+    /// Traffic shape for the scenario workload; see load.Phase#parse.
+    @Key("load.phases")
+    @DefaultValue("ramp(5,40,5s);soak(40,10s);spike(40,120,2s,6s)")
+    String loadPhases();
+
+    /// Think time between a scenario's calls, as a latency distribution.
+    @Key("load.think")
+    @DefaultValue("uniform(50,300)")
+    String loadThink();
+
+    /// Worker processes for the distributed load test; each sends load.rate / load.workers.
+    @Key("load.workers")
+    @DefaultValue("2")
+    int loadWorkers();
+
+    /// A load worker sending its p99 call later than this is flagged as saturated.
+    @Key("load.max.schedule.lag.ms")
+    @DefaultValue("20")
+    double loadMaxScheduleLagMs();
 }
@@ -1,20 +1,52 @@
 package data;
 
+import lombok.Getter;
 import model.booking.BookingDates;
 import model.booking.CreateUpdateRequest;
 
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// Each instance owns a unique identity (name pair and date window), so a test
+/// that searches by its own booking never sees bookings made by concurrent tests
+/// or by earlier runs against the same environment.
+@Getter
 public class BookingData {
 
+    private static final String RUN =
+            Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36 * 36 * 36), 36);
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final LocalDate FIRST_CHECKIN = LocalDate.of(2024, 5, 10);
+    private static final int WINDOWS = 3650;
+    private static final int STAY_DAYS = 114;
+
+    private final String firstname;
+    private final String lastname;
+    private final String checkin;
+    private final String checkout;
+
+    public BookingData() {
+        int sequence = SEQUENCE.incrementAndGet();
+        String tag = RUN + "-" + sequence;
+        LocalDate from = FIRST_CHECKIN.plusDays(Math.floorMod(RUN.hashCode() + sequence, WINDOWS));
+
+        this.firstname = "Vlad-" + tag;
+        this.lastname = "Tretyakov-" + tag;
+        this.checkin = from.toString();
+        this.checkout = from.plusDays(STAY_DAYS).toString();
+    }
+
     public CreateUpdateRequest defaultBooking() {
 
         BookingDates dates = BookingDates.builder()
-                .checkin("2024-05-10")
-                .checkout("2024-09-01")
+                .checkin(checkin)
+                .checkout(checkout)
                 .build();
 
         return CreateUpdateRequest.builder()
-                .firstname("Vlad")
-                .lastname("Tretyakov")
+                .firstname(firstname)
+                .lastname(lastname)
                 .totalprice(111)
                 .depositpaid(true)
                 .bookingdates(dates)
@@ -38,4 +70,4 @@ public class BookingData {
                 .additionalneeds("Breakfast")
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package extensions;
+
+import api.ApiContext;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/// Ties [ApiContext] to the lifetime of the whole test run: the root store
+/// closes its resources once, after the last test class has finished.
+public class ApiContextExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(ApiContextExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot()
+                .getStore(NAMESPACE)
+                .getOrComputeIfAbsent(ApiContext.class, key -> {
+                    ApiContext.get();
+                    return (ExtensionContext.Store.CloseableResource) ApiContext::shutdown;
+                });
+    }
+}
@@ -0,0 +1,46 @@
+package extensions;
+
+import api.BookingBranch;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import server.StandInServer;
+import store.VersionedBookingStore;
+
+/// With booker.stand.in.isolation=true, gives each test its own fork of the
+/// stand-in's bookings and drops it afterwards. Forking and dropping are O(1),
+/// so every test sees the full preloaded data set as it was at the start, with no
+/// re-seeding and no teardown requests, even while tests run in parallel.
+///
+/// Must be registered after [StandInServerExtension].
+public class BookingIsolationExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(BookingIsolationExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        ExtensionContext.Store root = context.getRoot().getStore(StandInServerExtension.NAMESPACE);
+        VersionedBookingStore shared = root.get(VersionedBookingStore.class, VersionedBookingStore.class);
+        if (shared == null) {
+            return;
+        }
+        String branch = context.getUniqueId();
+        root.get(StandInServer.class, StandInServer.class).branch(branch, shared.fork());
+        context.getStore(NAMESPACE).put(String.class, branch);
+        BookingBranch.set(branch);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        String branch = context.getStore(NAMESPACE).remove(String.class, String.class);
+        if (branch == null) {
+            return;
+        }
+        BookingBranch.set(null);
+        context.getRoot()
+                .getStore(StandInServerExtension.NAMESPACE)
+                .get(StandInServer.class, StandInServer.class)
+                .dropBranch(branch);
+    }
+}
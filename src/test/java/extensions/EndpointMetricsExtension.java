@@ -0,0 +1,137 @@
+package extensions;
+
+import api.ApiContext;
+import api.EndpointMetrics;
+import api.EndpointMetricsSnapshot;
+import api.PhaseTimings;
+import config.TestConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/// Gives each test class its own [EndpointMetrics] and, once the class and once the
+/// whole run have finished, writes their snapshots as JSON under http.metrics.dir
+/// and as an "Endpoint metrics" tear-down in the Allure report, on a container
+/// holding the class's tests for a class and every test for the run, where the
+/// [PhaseTimings] breakdown and slow calls are added too. No test results are
+/// added, so the report's counts and history stay those of the real tests.
+public class EndpointMetricsExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback,
+        AfterAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(EndpointMetricsExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        ApiContext api = ApiContext.get();
+        EndpointMetrics suite = api.metrics();
+        if (suite == null) {
+            return;
+        }
+        TestUuids all = context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(EndpointMetricsExtension.class,
+                key -> {
+                    TestUuids tests = new TestUuids(null);
+                    api.onShutdown(() -> publish(api.config(), suite.snapshot(), "suite", "All tests",
+                            tests, api.timings().report()));
+                    return tests;
+                }, TestUuids.class);
+        String className = context.getRequiredTestClass().getName();
+        context.getStore(NAMESPACE).put(EndpointMetrics.class, new EndpointMetrics(className));
+        context.getStore(NAMESPACE).put(TestUuids.class, new TestUuids(all));
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        EndpointMetrics metrics = context.getStore(NAMESPACE).get(EndpointMetrics.class, EndpointMetrics.class);
+        if (metrics != null) {
+            EndpointMetrics.start(metrics);
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        EndpointMetrics.stop();
+        TestUuids tests = context.getStore(NAMESPACE).get(TestUuids.class, TestUuids.class);
+        if (tests != null) {
+            Allure.getLifecycle().getCurrentTestCase().ifPresent(tests::add);
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        EndpointMetrics metrics = context.getStore(NAMESPACE).remove(EndpointMetrics.class, EndpointMetrics.class);
+        TestUuids tests = context.getStore(NAMESPACE).remove(TestUuids.class, TestUuids.class);
+        if (metrics != null) {
+            publish(ApiContext.get().config(), metrics.snapshot(), metrics.name(), metrics.name(), tests, null);
+        }
+    }
+
+    private static void publish(TestConfig config, EndpointMetricsSnapshot snapshot, String file, String name,
+                                TestUuids tests, PhaseTimings.Report phases) {
+        try {
+            snapshot.write(Path.of(config.httpMetricsDir(), file + ".json"));
+            if (phases != null) {
+                phases.write(Path.of(config.httpMetricsDir(), file + "-phases.json"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write endpoint metrics for " + snapshot.getScope(), e);
+        }
+
+        // The class's tests have finished, so the snapshot goes on a tear-down of a
+        // container over them, which the report shows with each test.
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String container = UUID.randomUUID().toString();
+        String fixture = UUID.randomUUID().toString();
+        lifecycle.startTestContainer(new TestResultContainer()
+                .setUuid(container)
+                .setName(name)
+                .setChildren(new ArrayList<>(tests.uuids)));
+        lifecycle.startTearDownFixture(container, fixture, new FixtureResult()
+                .setName("Endpoint metrics")
+                .setStatus(Status.PASSED));
+        lifecycle.addAttachment("Endpoint metrics", "text/plain", ".txt",
+                snapshot.toText().getBytes(StandardCharsets.UTF_8));
+        lifecycle.addAttachment("Endpoint metrics JSON", "application/json", ".json",
+                snapshot.toJson().getBytes(StandardCharsets.UTF_8));
+        if (phases != null) {
+            lifecycle.addAttachment("Call phases", "text/plain", ".txt",
+                    phases.toText().getBytes(StandardCharsets.UTF_8));
+        }
+        lifecycle.stopFixture(fixture);
+        lifecycle.stopTestContainer(container);
+        lifecycle.writeTestContainer(container);
+    }
+
+    /// Allure uuids of the tests that ran under one class, also added to the run's.
+    private static final class TestUuids {
+        private final Queue<String> uuids = new ConcurrentLinkedQueue<>();
+        private final TestUuids run;
+
+        private TestUuids(TestUuids run) {
+            this.run = run;
+        }
+
+        private void add(String uuid) {
+            uuids.add(uuid);
+            if (run != null) {
+                run.add(uuid);
+            }
+        }
+    }
+}
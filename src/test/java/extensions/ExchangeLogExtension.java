@@ -0,0 +1,53 @@
+package extensions;
+
+import api.ApiContext;
+import api.ExchangeLog;
+import config.TestConfig;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/// Gives each test its own [ExchangeLog] and, only when the test fails, attaches
+/// the recorded exchanges to its Allure result and prints them to stderr.
+/// Calls made from pool threads are shared by all tests and attached separately.
+public class ExchangeLogExtension implements BeforeEachCallback, AfterTestExecutionCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(ExchangeLogExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        TestConfig config = ApiContext.get().config();
+        if (!config.httpLogging().equals("recorder") || config.httpLogExchanges() < 1) {
+            return;
+        }
+        ExchangeLog log = new ExchangeLog(context.getDisplayName(), config.httpLogExchanges(),
+                config.httpLogBodyBytes());
+        context.getStore(NAMESPACE).put(ExchangeLog.class, log);
+        ExchangeLog.start(log);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        ExchangeLog log = context.getStore(NAMESPACE).get(ExchangeLog.class, ExchangeLog.class);
+        if (log == null || context.getExecutionException().isEmpty()) {
+            return;
+        }
+        String exchanges = log.render();
+        Allure.addAttachment("HTTP exchanges", "text/plain", exchanges, ".txt");
+        System.err.println(context.getUniqueId() + " failed; " + exchanges);
+        if (ExchangeLog.untagged().size() > 0) {
+            Allure.addAttachment("HTTP exchanges from pool threads (all tests)", "text/plain",
+                    ExchangeLog.untagged().render(), ".txt");
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (context.getStore(NAMESPACE).remove(ExchangeLog.class, ExchangeLog.class) != null) {
+            ExchangeLog.stop();
+        }
+    }
+}
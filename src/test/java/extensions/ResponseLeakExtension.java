@@ -0,0 +1,73 @@
+package extensions;
+
+import api.ApiContext;
+import api.ResponseLeakDetector;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+
+/// With http.leak.detection set, checks after each test that every response body it
+/// opened was closed. Unclosed ones are attached to its Allure result and printed to
+/// stderr with the stack that created the call and the pool gauge; in `fail` mode
+/// the test fails too. Bodies opened outside any test are checked once the run ends.
+public class ResponseLeakExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(ResponseLeakExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        ResponseLeakDetector detector = ApiContext.get().leakDetector();
+        if (detector == null) {
+            return;
+        }
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(ResponseLeakExtension.class,
+                key -> (ExtensionContext.Store.CloseableResource) () -> {
+                    List<String> leaks = detector.leaks(null);
+                    if (leaks.isEmpty()) {
+                        return;
+                    }
+                    String report = detector.report(leaks);
+                    System.err.println("After the run: " + report);
+                    if (detector.mode() == ResponseLeakDetector.Mode.FAIL) {
+                        throw new IllegalStateException(report);
+                    }
+                });
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (ApiContext.get().leakDetector() == null) {
+            return;
+        }
+        ResponseLeakDetector.Scope scope = new ResponseLeakDetector.Scope(
+                context.getRequiredTestClass().getSimpleName() + " > " + context.getDisplayName());
+        context.getStore(NAMESPACE).put(ResponseLeakDetector.Scope.class, scope);
+        ResponseLeakDetector.start(scope);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ResponseLeakDetector.Scope scope =
+                context.getStore(NAMESPACE).remove(ResponseLeakDetector.Scope.class, ResponseLeakDetector.Scope.class);
+        if (scope == null) {
+            return;
+        }
+        ResponseLeakDetector.stop();
+        ResponseLeakDetector detector = ApiContext.get().leakDetector();
+        List<String> leaks = detector.leaks(scope);
+        if (leaks.isEmpty()) {
+            return;
+        }
+        String report = detector.report(leaks);
+        Allure.addAttachment("Unclosed response bodies", "text/plain", report, ".txt");
+        System.err.println(scope + ": " + report);
+        if (detector.mode() == ResponseLeakDetector.Mode.FAIL) {
+            throw new AssertionError(report);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package extensions;
+
+import api.ApiContext;
+import config.TestConfig;
+import data.BookingData;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import server.StandInServer;
+import store.BookingStore;
+import store.IndexedBookingStore;
+import store.JournaledBookingStore;
+import store.VersionedBookingStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/// With booker.stand.in=true, starts one [StandInServer] for the whole run and
+/// points base.url at it before any test instance reads the config. The server
+/// stops after every other shutdown hook, so cleanup still reaches it. With
+/// booker.stand.in.journal.dir set, its bookings survive restarts of the run;
+/// with booker.stand.in.isolation=true, they live in a [VersionedBookingStore]
+/// that [BookingIsolationExtension] forks per test.
+public class StandInServerExtension implements BeforeAllCallback {
+
+    static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(StandInServerExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        ApiContext api = ApiContext.get();
+        TestConfig config = api.config();
+        if (!config.standIn()) {
+            return;
+        }
+        ExtensionContext.Store store = context.getRoot().getStore(NAMESPACE);
+        store.getOrComputeIfAbsent(StandInServer.class, key -> start(api, config, store), StandInServer.class);
+    }
+
+    private static StandInServer start(ApiContext api, TestConfig config, ExtensionContext.Store context) {
+        try {
+            BookingStore store;
+            if (config.standInIsolation()) {
+                VersionedBookingStore versioned = new VersionedBookingStore();
+                context.put(VersionedBookingStore.class, versioned);
+                store = versioned;
+            } else if (!config.standInJournalDir().isEmpty()) {
+                JournaledBookingStore journaled = JournaledBookingStore.open(Path.of(config.standInJournalDir()),
+                        new IndexedBookingStore(), JournaledBookingStore.Options.builder().build());
+                api.onShutdown(() -> {
+                    try {
+                        journaled.close();
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Cannot close booking journal", e);
+                    }
+                });
+                store = journaled;
+            } else {
+                store = new IndexedBookingStore();
+            }
+            for (int i = 0; i < config.standInPreload(); i++) {
+                store.create(new BookingData().defaultBooking());
+            }
+
+            StandInServer server = new StandInServer(store, config.login(), config.password())
+                    .start(config.standInPort());
+            api.onShutdown(server::stop);
+            config.setProperty("base.url", server.baseUrl());
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start stand-in server", e);
+        }
+    }
+}
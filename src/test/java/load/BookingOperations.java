@@ -0,0 +1,44 @@
+package load;
+
+import data.BookingData;
+import model.booking.CreateResponse;
+import model.booking.CreateUpdateRequest;
+import steps.BookingSteps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/// The operations named in load.mix, over a pool of booking ids that starts with
+/// a few seeded bookings and grows with every createBooking. Shared by the
+/// in-process load test and [LoadWorker] so both drive the same traffic.
+public final class BookingOperations {
+
+    private BookingOperations() {
+    }
+
+    /// Creates `seedBookings` bookings first, so getBooking has ids to pick from.
+    public static Map<String, OpenLoadGenerator.Operation> seeded(BookingSteps bookingSteps, int seedBookings)
+            throws Exception {
+        List<CreateUpdateRequest> seeds = new ArrayList<>();
+        for (int i = 0; i < seedBookings; i++) {
+            seeds.add(new BookingData().defaultBooking());
+        }
+        List<Integer> ids = new CopyOnWriteArrayList<>();
+        for (CreateResponse created : bookingSteps.createAll(seeds)) {
+            ids.add(created.getBookingid());
+        }
+
+        return Map.of(
+                "getBooking", random -> bookingSteps.getBookingByIdAsync(ids.get(random.nextInt(ids.size()))),
+                "createBooking", random -> bookingSteps.createAsync(new BookingData().defaultBooking())
+                        .thenAccept(created -> ids.add(created.getBookingid())),
+                "getBookingIds", random -> bookingSteps.getBookingIdArrayAsync(null, null, null, null)
+                        .thenAccept(response -> {
+                            if (response.code() != 200) {
+                                throw new IllegalStateException("GET /booking returned " + response.code());
+                            }
+                        }));
+    }
+}
@@ -0,0 +1,116 @@
+package load;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/// Result of a [LoadCoordinator] run: the merged [LoadReport] plus one row per
+/// worker, with flags for workers that skewed the run or could not keep up.
+///
+/// Skew is a worker sending more than 10% off its share of the rate, or with a p99
+/// more than twice the median worker's. Saturation is a worker dropping calls,
+/// leaving calls unfinished, sending late (schedule lag p99 over the limit), using
+/// more than 90% of the host CPU, or exiting without its final report.
+@Getter
+public class DistributedLoadReport {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final double MAX_RATE_SKEW = 0.10;
+    private static final double MAX_P99_RATIO = 2.0;
+    private static final double MAX_CPU = 0.9;
+
+    @Getter
+    public static class Worker {
+        private final int index;
+        private final double targetRate;
+        private final double rate;
+        private final double latencyP99;
+        private final double scheduleLagP99;
+        private final double cpu;
+        private final long dropped;
+        private final int unfinished;
+        private final int exitCode;
+        private final boolean complete;
+        private final List<String> flags = new ArrayList<>();
+
+        Worker(int index, double targetRate, double rate, double latencyP99, double scheduleLagP99, double cpu,
+               long dropped, int unfinished, int exitCode, boolean complete, double maxScheduleLagMillis) {
+            this.index = index;
+            this.targetRate = targetRate;
+            this.rate = rate;
+            this.latencyP99 = latencyP99;
+            this.scheduleLagP99 = scheduleLagP99;
+            this.cpu = cpu;
+            this.dropped = dropped;
+            this.unfinished = unfinished;
+            this.exitCode = exitCode;
+            this.complete = complete;
+            if (!complete) {
+                flags.add("saturated: no final report (exit " + exitCode + ")");
+            }
+            if (dropped > 0 || unfinished > 0) {
+                flags.add("saturated: " + dropped + " dropped, " + unfinished + " unfinished");
+            }
+            if (scheduleLagP99 > maxScheduleLagMillis) {
+                flags.add(String.format(Locale.ROOT, "saturated: schedule lag p99 %.1f ms", scheduleLagP99));
+            }
+            if (cpu > MAX_CPU) {
+                flags.add(String.format(Locale.ROOT, "saturated: cpu %.0f%%", cpu * 100));
+            }
+        }
+    }
+
+    private final LoadReport merged;
+    private final List<Worker> workers = new ArrayList<>();
+
+    DistributedLoadReport(LoadReport merged) {
+        this.merged = merged;
+    }
+
+    void add(Worker worker) {
+        workers.add(worker);
+    }
+
+    void flagSkew() {
+        double[] p99s = workers.stream().mapToDouble(Worker::getLatencyP99).sorted().toArray();
+        double median = p99s.length == 0 ? 0 : p99s[(p99s.length - 1) / 2];
+        for (Worker worker : workers) {
+            if (Math.abs(worker.rate - worker.targetRate) > worker.targetRate * MAX_RATE_SKEW) {
+                worker.flags.add(String.format(Locale.ROOT, "skew: %.1f/s against %.1f/s",
+                        worker.rate, worker.targetRate));
+            }
+            if (median > 0 && worker.latencyP99 > median * MAX_P99_RATIO) {
+                worker.flags.add(String.format(Locale.ROOT, "skew: p99 %.2f ms against median %.2f ms",
+                        worker.latencyP99, median));
+            }
+        }
+    }
+
+    public boolean flagged() {
+        return workers.stream().anyMatch(worker -> !worker.flags.isEmpty());
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder(merged.toText());
+        text.append(String.format(Locale.ROOT, "%-6s %9s %9s %9s %11s %6s %s%n",
+                "worker", "target/s", "sent/s", "p99 ms", "lag p99 ms", "cpu%", "flags"));
+        for (Worker worker : workers) {
+            text.append(String.format(Locale.ROOT, "%-6d %9.1f %9.1f %9.2f %11.2f %6.0f %s%n",
+                    worker.index, worker.targetRate, worker.rate, worker.latencyP99, worker.scheduleLagP99,
+                    worker.cpu * 100, worker.flags.isEmpty() ? "-" : String.join("; ", worker.flags)));
+        }
+        return text.toString();
+    }
+
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, GSON.toJson(this));
+    }
+}
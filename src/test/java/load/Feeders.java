@@ -0,0 +1,37 @@
+package load;
+
+import data.BookingData;
+import model.booking.CreateUpdateRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/// Data sources for [Scenario#feed(String, java.util.function.Function)].
+public final class Feeders {
+
+    private Feeders() {
+    }
+
+    /// A fresh [BookingData] identity per run, with names and dates no one else uses.
+    public static Function<Session, BookingData> bookingData() {
+        return session -> new BookingData();
+    }
+
+    /// A new booking body per run, built from a fresh [BookingData].
+    public static Function<Session, CreateUpdateRequest> bookings() {
+        return session -> new BookingData().defaultBooking();
+    }
+
+    /// Cycles through the values in order.
+    public static <T> Function<Session, T> circular(List<T> values) {
+        AtomicInteger next = new AtomicInteger();
+        return session -> values.get(Math.floorMod(next.getAndIncrement(), values.size()));
+    }
+
+    /// A random element of a list that may grow while the workload runs, drawn from
+    /// the session's seeded random.
+    public static <T> Function<Session, T> random(List<T> values) {
+        return session -> values.get(session.random().nextInt(values.size()));
+    }
+}
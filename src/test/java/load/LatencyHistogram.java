@@ -0,0 +1,145 @@
+package load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/// Concurrent latency histogram in microseconds with HdrHistogram's log-linear
+/// bucketing: values below 128 exactly, then 64 linear buckets per power of two, so
+/// every recorded value is kept within 1.6% whatever its magnitude, in a fixed 30 KB
+/// of counters.
+///
+/// [#recordCorrected(long, long)] adds HdrHistogram's coordinated-omission
+/// correction for closed-loop callers: a stall of N expected intervals also records
+/// the N-1 samples that the stall kept from being sent.
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT / 2 + SUB_COUNT / 2;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        long value = Math.max(micros, 0);
+        counts.incrementAndGet(index(value));
+        total.incrementAndGet();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public void recordCorrected(long micros, long expectedIntervalMicros) {
+        record(micros);
+        if (expectedIntervalMicros <= 0) {
+            return;
+        }
+        for (long missing = micros - expectedIntervalMicros; missing >= expectedIntervalMicros;
+             missing -= expectedIntervalMicros) {
+            record(missing);
+        }
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        total.addAndGet(other.total.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    /// Moves every count recorded so far into a new histogram and leaves this one
+    /// empty. Concurrent records land in one of the two, never in neither.
+    public LatencyHistogram drain() {
+        LatencyHistogram drained = new LatencyHistogram();
+        long moved = 0;
+        int last = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.getAndSet(i, 0);
+            if (count != 0) {
+                drained.counts.set(i, count);
+                moved += count;
+                last = i;
+            }
+        }
+        total.addAndGet(-moved);
+        drained.total.set(moved);
+        drained.max.set(last < 0 ? 0 : Math.min(highest(last), max.get()));
+        return drained;
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /// Value at the given percentile (0-100): the highest value of the bucket it falls in.
+    public long percentile(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highest(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /// Non-empty buckets as `[highest value, count]` pairs, for merging reports from other processes.
+    public long[][] buckets() {
+        int used = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != 0) {
+                used++;
+            }
+        }
+        long[][] buckets = new long[used][];
+        int next = 0;
+        for (int i = 0; i < BUCKETS && next < used; i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                buckets[next++] = new long[]{highest(i), count};
+            }
+        }
+        return buckets;
+    }
+
+    /// Adds counts exported by [#buckets()].
+    public void addBuckets(long[][] buckets) {
+        for (long[] bucket : buckets) {
+            counts.addAndGet(index(bucket[0]), bucket[1]);
+            total.addAndGet(bucket[1]);
+            max.accumulateAndGet(bucket[0], Math::max);
+        }
+    }
+
+    /// Values below 128 map one to one; above that, each power of two is split into
+    /// 64 buckets (the upper half of the 128 sub-buckets at that scale).
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        int sub = (int) (value >>> exponent);
+        return SUB_COUNT + (exponent - 1) * (SUB_COUNT / 2) + (sub - SUB_COUNT / 2);
+    }
+
+    static long highest(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = (index - SUB_COUNT) / (SUB_COUNT / 2) + 1;
+        long sub = (index - SUB_COUNT) % (SUB_COUNT / 2) + SUB_COUNT / 2;
+        return ((sub + 1) << exponent) - 1;
+    }
+}
@@ -0,0 +1,275 @@
+package load;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/// Runs one open-model load across several worker JVMs on this host, for rates a
+/// single client process cannot generate. Each [LoadWorker] gets an equal share of
+/// the rate, its own seed and the same start time, a few seconds ahead so every
+/// process is warmed up and seeded before the first call.
+///
+/// Workers stream their histograms over stdout, one report per second and one for
+/// the whole run. The coordinator merges them by bucket, so the combined percentiles
+/// are exactly those of one histogram over every call. A worker's final report
+/// supersedes its intervals; a worker that dies counts with what it streamed and is
+/// flagged.
+public class LoadCoordinator {
+
+    private static final Gson GSON = new Gson();
+    private static final long EXIT_SLACK_SECONDS = 60;
+
+    private final int workers;
+    private final double ratePerSecond;
+    private final Duration duration;
+    private final Map<String, String> properties = new LinkedHashMap<>();
+    private Duration startGrace = Duration.ofSeconds(5);
+    private Path logDir = Path.of("target", "load");
+    private long seed = 42;
+    private double maxScheduleLagMillis = 20;
+
+    public LoadCoordinator(int workers, double ratePerSecond, Duration duration) {
+        this.workers = workers;
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+    }
+
+    /// Passed to every worker as a system property, e.g. base.url or load.mix.
+    public LoadCoordinator property(String key, Object value) {
+        properties.put(key, String.valueOf(value));
+        return this;
+    }
+
+    /// Time between launching the workers and their common first call.
+    public LoadCoordinator startGrace(Duration startGrace) {
+        this.startGrace = startGrace;
+        return this;
+    }
+
+    /// Where each worker's stderr and non-report output go, as worker-N.log.
+    public LoadCoordinator logDir(Path logDir) {
+        this.logDir = logDir;
+        return this;
+    }
+
+    /// Worker N runs with seed + N, so workers do not replay the same mix.
+    public LoadCoordinator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /// A worker whose p99 schedule lag exceeds this is flagged as saturated.
+    public LoadCoordinator maxScheduleLagMillis(double maxScheduleLagMillis) {
+        this.maxScheduleLagMillis = maxScheduleLagMillis;
+        return this;
+    }
+
+    public DistributedLoadReport run() throws IOException, InterruptedException {
+        Files.createDirectories(logDir);
+        long startAt = System.currentTimeMillis() + startGrace.toMillis();
+        double share = ratePerSecond / workers;
+
+        List<Worker> running = new ArrayList<>();
+        try {
+            for (int i = 0; i < workers; i++) {
+                running.add(new Worker(i, share, launch(i, share, startAt)));
+            }
+            long deadline = startAt + duration.toMillis() + TimeUnit.SECONDS.toMillis(30 + EXIT_SLACK_SECONDS);
+            for (Worker worker : running) {
+                worker.await(deadline);
+            }
+        } finally {
+            for (Worker worker : running) {
+                worker.process.destroyForcibly();
+            }
+        }
+
+        DistributedLoadReport report = new DistributedLoadReport(merge(running));
+        for (Worker worker : running) {
+            report.add(worker.summary(duration.toNanos() / 1e9, maxScheduleLagMillis));
+        }
+        report.flagSkew();
+        return report;
+    }
+
+    private Process launch(int index, double share, long startAt) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")));
+        Map<String, String> system = new LinkedHashMap<>(properties);
+        system.put("load.worker.index", String.valueOf(index));
+        system.put("load.start.at", String.valueOf(startAt));
+        system.put("load.rate", String.valueOf(share));
+        system.put("load.duration.seconds", String.valueOf(duration.toSeconds()));
+        system.put("load.seed", String.valueOf(seed + index));
+        system.forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add(LoadWorker.class.getName());
+
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.appendTo(log(index).toFile()))
+                .start();
+    }
+
+    private Path log(int index) {
+        return logDir.resolve("worker-" + index + ".log");
+    }
+
+    private LoadReport merge(List<Worker> running) {
+        Map<String, long[]> counts = new TreeMap<>();
+        Map<String, LatencyHistogram> latency = new TreeMap<>();
+        Map<String, LatencyHistogram> service = new TreeMap<>();
+        LatencyHistogram lag = new LatencyHistogram();
+        double seconds = 0;
+        int unfinished = 0;
+        for (Worker worker : running) {
+            synchronized (worker) {
+                for (LoadReport.Endpoint endpoint : worker.reported()) {
+                    long[] total = counts.computeIfAbsent(endpoint.getName(), name -> new long[3]);
+                    total[0] += endpoint.getSucceeded();
+                    total[1] += endpoint.getFailed();
+                    total[2] += endpoint.getDropped();
+                    latency.computeIfAbsent(endpoint.getName(), name -> new LatencyHistogram())
+                            .addBuckets(endpoint.getLatencyHistogram());
+                    service.computeIfAbsent(endpoint.getName(), name -> new LatencyHistogram())
+                            .addBuckets(endpoint.getServiceHistogram());
+                }
+                lag.add(worker.lag());
+                seconds = Math.max(seconds, worker.seconds());
+                unfinished += worker.unfinished();
+            }
+        }
+
+        LoadReport merged = new LoadReport(String.format(Locale.ROOT, "Open model at %.1f/s over %d workers",
+                ratePerSecond, workers), seconds, unfinished);
+        counts.forEach((name, total) -> merged.add(name, total[0], total[1], total[2],
+                latency.get(name), service.get(name)));
+        merged.scheduleLag(lag);
+        return merged;
+    }
+
+    /// One worker process and everything it has streamed so far.
+    private final class Worker {
+        private final int index;
+        private final double share;
+        private final Process process;
+        private final Thread reader;
+        private final List<LoadReport> intervals = new ArrayList<>();
+        private LoadReport last;
+        private double cpu;
+
+        private Worker(int index, double share, Process process) {
+            this.index = index;
+            this.share = share;
+            this.process = process;
+            this.reader = new Thread(this::read, "load-worker-" + index);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void read() {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                    if (line.startsWith(LoadWorker.PREFIX)) {
+                        accept(line.substring(LoadWorker.PREFIX.length()));
+                    } else {
+                        Files.writeString(log(index), line + System.lineSeparator(),
+                                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Lost output of load worker " + index + ": " + e);
+            }
+        }
+
+        private synchronized void accept(String json) {
+            LoadWorker.Message message;
+            try {
+                message = GSON.fromJson(json, LoadWorker.Message.class);
+            } catch (JsonParseException e) {
+                System.err.println("Unreadable line from load worker " + index + ": " + e);
+                return;
+            }
+            cpu = Math.max(cpu, message.cpu);
+            if (LoadWorker.FINAL.equals(message.type)) {
+                last = message.report;
+            } else {
+                intervals.add(message.report);
+            }
+        }
+
+        private void await(long deadlineMillis) throws InterruptedException {
+            long wait = Math.max(deadlineMillis - System.currentTimeMillis(), 0);
+            if (!process.waitFor(wait, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+            reader.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        private boolean complete() {
+            return last != null;
+        }
+
+        /// The final report's endpoints, or the sum of the streamed intervals without one.
+        private List<LoadReport.Endpoint> reported() {
+            if (last != null) {
+                return last.getEndpoints();
+            }
+            List<LoadReport.Endpoint> endpoints = new ArrayList<>();
+            for (LoadReport interval : intervals) {
+                endpoints.addAll(interval.getEndpoints());
+            }
+            return endpoints;
+        }
+
+        private LatencyHistogram lag() {
+            LatencyHistogram lag = new LatencyHistogram();
+            if (last != null) {
+                lag.addBuckets(last.getScheduleLagHistogram());
+            }
+            return lag;
+        }
+
+        private double seconds() {
+            if (last != null) {
+                return last.getSeconds();
+            }
+            return intervals.stream().mapToDouble(LoadReport::getSeconds).sum();
+        }
+
+        private int unfinished() {
+            return last == null ? 0 : last.getUnfinished();
+        }
+
+        private synchronized DistributedLoadReport.Worker summary(double plannedSeconds, double maxLagMillis) {
+            LatencyHistogram latency = new LatencyHistogram();
+            long attempted = 0;
+            long dropped = 0;
+            for (LoadReport.Endpoint endpoint : reported()) {
+                latency.addBuckets(endpoint.getLatencyHistogram());
+                attempted += endpoint.getSucceeded() + endpoint.getFailed() + endpoint.getDropped();
+                dropped += endpoint.getDropped();
+            }
+            int exitCode = process.isAlive() ? -1 : process.exitValue();
+            return new DistributedLoadReport.Worker(index, share, attempted / plannedSeconds,
+                    latency.percentile(99) / 1000.0, lag().percentile(99) / 1000.0, cpu,
+                    dropped, unfinished(), exitCode, complete(), maxLagMillis);
+        }
+    }
+}
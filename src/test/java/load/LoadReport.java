@@ -0,0 +1,133 @@
+package load;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/// Per-endpoint results of a load run, printable as a table and writable as JSON.
+/// Latencies are in milliseconds; `latency*` is from the intended start,
+/// `service*` from the actual send. The JSON keeps each histogram's buckets, so
+/// reports from several runs or processes can be merged exactly.
+@Getter
+public class LoadReport {
+
+    @Getter
+    public static class Endpoint {
+        private final String name;
+        private final long succeeded;
+        private final long failed;
+        private final long dropped;
+        private final double throughput;
+        private final double errorRate;
+        private final double latencyP50;
+        private final double latencyP99;
+        private final double latencyP999;
+        private final double latencyMax;
+        private final double serviceP50;
+        private final double serviceP99;
+        private final double serviceP999;
+        private final double serviceMax;
+        private final long[][] latencyHistogram;
+        private final long[][] serviceHistogram;
+
+        Endpoint(String name, long succeeded, long failed, long dropped, double seconds,
+                 LatencyHistogram latency, LatencyHistogram service) {
+            long attempted = succeeded + failed + dropped;
+            this.name = name;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.dropped = dropped;
+            this.throughput = seconds > 0 ? succeeded / seconds : 0;
+            this.errorRate = attempted > 0 ? (double) (failed + dropped) / attempted : 0;
+            this.latencyP50 = latency.percentile(50) / 1000.0;
+            this.latencyP99 = latency.percentile(99) / 1000.0;
+            this.latencyP999 = latency.percentile(99.9) / 1000.0;
+            this.latencyMax = latency.max() / 1000.0;
+            this.serviceP50 = service.percentile(50) / 1000.0;
+            this.serviceP99 = service.percentile(99) / 1000.0;
+            this.serviceP999 = service.percentile(99.9) / 1000.0;
+            this.serviceMax = service.max() / 1000.0;
+            this.latencyHistogram = latency.buckets();
+            this.serviceHistogram = service.buckets();
+        }
+    }
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final String workload;
+    private final double seconds;
+    private final int unfinished;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private transient final LatencyHistogram allLatency = new LatencyHistogram();
+    private transient final LatencyHistogram allService = new LatencyHistogram();
+    private long succeeded;
+    private long failed;
+    private long dropped;
+    private Endpoint total;
+    private double scheduleLagP99;
+    private double scheduleLagMax;
+    private long[][] scheduleLagHistogram = new long[0][];
+
+    public LoadReport(String workload, double seconds, int unfinished) {
+        this.workload = workload;
+        this.seconds = seconds;
+        this.unfinished = unfinished;
+    }
+
+    public void add(String name, long succeeded, long failed, long dropped,
+                    LatencyHistogram latency, LatencyHistogram service) {
+        endpoints.add(new Endpoint(name, succeeded, failed, dropped, seconds, latency, service));
+        allLatency.add(latency);
+        allService.add(service);
+        this.succeeded += succeeded;
+        this.failed += failed;
+        this.dropped += dropped;
+        this.total = new Endpoint("total", this.succeeded, this.failed, this.dropped, seconds,
+                allLatency, allService);
+    }
+
+    /// How late calls were sent against their schedule; high values mean the generator is saturated.
+    public void scheduleLag(LatencyHistogram lag) {
+        scheduleLagP99 = lag.percentile(99) / 1000.0;
+        scheduleLagMax = lag.max() / 1000.0;
+        scheduleLagHistogram = lag.buckets();
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "%s: %.1f s, %d unfinished%n", workload, seconds, unfinished));
+        if (scheduleLagMax > 0) {
+            text.append(String.format(Locale.ROOT, "schedule lag p99 %.2f ms, max %.2f ms%n",
+                    scheduleLagP99, scheduleLagMax));
+        }
+        text.append(String.format(Locale.ROOT, "%-16s %9s %8s %8s %9s %7s %9s %9s %9s %9s %10s%n",
+                "endpoint", "ok", "failed", "dropped", "ok/s", "err%",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms"));
+        for (Endpoint endpoint : endpoints) {
+            row(text, endpoint);
+        }
+        if (total != null) {
+            row(text, total);
+        }
+        return text.toString();
+    }
+
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, GSON.toJson(this));
+    }
+
+    private static void row(StringBuilder text, Endpoint endpoint) {
+        text.append(String.format(Locale.ROOT, "%-16s %9d %8d %8d %9.1f %7.2f %9.2f %9.2f %9.2f %9.2f %10.2f%n",
+                endpoint.name, endpoint.succeeded, endpoint.failed, endpoint.dropped, endpoint.throughput,
+                endpoint.errorRate * 100, endpoint.latencyP50, endpoint.latencyP99, endpoint.latencyP999,
+                endpoint.latencyMax, endpoint.serviceP99));
+    }
+}
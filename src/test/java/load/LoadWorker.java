@@ -0,0 +1,83 @@
+package load;
+
+import api.ApiContext;
+import api.RestfulBookerApi;
+import api.RetrofitClient;
+import com.google.gson.Gson;
+import config.TestConfig;
+import steps.BookingCleanup;
+import steps.BookingSteps;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/// One process of a distributed run, started by [LoadCoordinator]. Runs its share
+/// of the open-model mix from the load.* keys and streams what it measured to
+/// stdout: a `LOAD {json}` line with the histograms of every interval, then one
+/// with the whole run. Any other output is left to the coordinator's log.
+///
+/// `load.worker.index` names the worker and `load.start.at` (epoch millis) is
+/// when every worker sends its first call.
+public final class LoadWorker {
+
+    static final String PREFIX = "LOAD ";
+    static final String INTERVAL = "interval";
+    static final String FINAL = "final";
+
+    private static final int SEED_BOOKINGS = 20;
+    private static final Gson GSON = new Gson();
+
+    /// One line of the stream; `cpu` is this process's share of the host's CPU.
+    static class Message {
+        int worker;
+        String type;
+        double cpu;
+        LoadReport report;
+    }
+
+    private LoadWorker() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int index = Integer.getInteger("load.worker.index", 0);
+        long startAt = Long.getLong("load.start.at", 0);
+        TestConfig config = ApiContext.get().config();
+        BookingCleanup.register();
+        try {
+            RestfulBookerApi api = RetrofitClient.getClient(RestfulBookerApi.class, config.baseUrl());
+            LoadReport report = new OpenLoadGenerator(
+                    config.loadRate(), Duration.ofSeconds(config.loadDurationSeconds()))
+                    .mix(config.loadMix(), BookingOperations.seeded(new BookingSteps(api), SEED_BOOKINGS))
+                    .maxOutstanding(config.loadMaxOutstanding())
+                    .seed(config.loadSeed())
+                    .startAt(startAt)
+                    .onInterval(Duration.ofSeconds(1), interval -> emit(index, INTERVAL, interval))
+                    .run();
+            emit(index, FINAL, report);
+        } finally {
+            ApiContext.shutdown();
+        }
+        System.exit(0);
+    }
+
+    private static void emit(int index, String type, LoadReport report) {
+        Message message = new Message();
+        message.worker = index;
+        message.type = type;
+        message.cpu = processCpuLoad();
+        message.report = report;
+        String line = PREFIX + GSON.toJson(message);
+        synchronized (System.out) {
+            System.out.println(line);
+            System.out.flush();
+        }
+    }
+
+    private static double processCpuLoad() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (!(os instanceof com.sun.management.OperatingSystemMXBean)) {
+            return 0;
+        }
+        return Math.max(((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad(), 0);
+    }
+}
@@ -0,0 +1,233 @@
+package load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/// Open-model load: calls start on a fixed schedule at the target rate, picked from a
+/// weighted mix of operations, however slowly earlier calls complete. Operations must
+/// be asynchronous so a slow response never delays the next start.
+///
+/// Latency is measured from each call's intended start time, not from when it was
+/// actually sent, so a stalled client or a full dispatcher queue shows up in the
+/// percentiles instead of being hidden (coordinated omission). The service time from
+/// the actual send is recorded too, to show how far the two diverge, and so is the
+/// schedule lag (actual minus intended send), which grows when the generator itself
+/// cannot keep up.
+public class OpenLoadGenerator {
+
+    /// Started from the generator thread; `random` is the generator's seeded source,
+    /// for operations that pick at random.
+    public interface Operation {
+        CompletableFuture<?> start(SplittableRandom random);
+    }
+
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final double ratePerSecond;
+    private final Duration duration;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final LatencyHistogram lag = new LatencyHistogram();
+    private int maxOutstanding = 10_000;
+    private long seed = 42;
+    private long startAtMillis;
+    private Duration interval;
+    private Consumer<LoadReport> intervalListener;
+
+    public OpenLoadGenerator(double ratePerSecond, Duration duration) {
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+    }
+
+    public OpenLoadGenerator operation(String name, int weight, Operation operation) {
+        endpoints.add(new Endpoint(name, weight, operation));
+        return this;
+    }
+
+    /// Adds operations by a weighted spec such as `getBooking=6,createBooking=2`.
+    public OpenLoadGenerator mix(String spec, Map<String, Operation> operations) {
+        for (String part : spec.split(",")) {
+            String[] weighted = part.trim().split("=");
+            Operation operation = operations.get(weighted[0]);
+            if (operation == null) {
+                throw new IllegalArgumentException("Unknown operation " + weighted[0] + " in " + spec);
+            }
+            operation(weighted[0], Integer.parseInt(weighted[1]), operation);
+        }
+        return this;
+    }
+
+    /// Starts are dropped (and reported) while this many calls are still open.
+    public OpenLoadGenerator maxOutstanding(int maxOutstanding) {
+        this.maxOutstanding = maxOutstanding;
+        return this;
+    }
+
+    public OpenLoadGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /// Holds the first start until this wall-clock time, so several generators start together.
+    public OpenLoadGenerator startAt(long epochMillis) {
+        this.startAtMillis = epochMillis;
+        return this;
+    }
+
+    /// Hands over what each interval recorded (and only that), as a report of its own.
+    public OpenLoadGenerator onInterval(Duration interval, Consumer<LoadReport> listener) {
+        this.interval = interval;
+        this.intervalListener = listener;
+        return this;
+    }
+
+    public LoadReport run() {
+        int totalWeight = endpoints.stream().mapToInt(endpoint -> endpoint.weight).sum();
+        SplittableRandom random = new SplittableRandom(seed);
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicLong lastCompletion = new AtomicLong();
+
+        long delay = startAtMillis - System.currentTimeMillis();
+        if (delay > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(delay));
+        }
+        ScheduledExecutorService reporter = intervals();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * 1e9 / ratePerSecond);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = pick(random.nextInt(totalWeight));
+            if (outstanding.get() >= maxOutstanding) {
+                endpoint.dropped.increment();
+                endpoint.intervalDropped.increment();
+                continue;
+            }
+            outstanding.incrementAndGet();
+            long sent = System.nanoTime();
+            lag.record((sent - intended) / 1000);
+            CompletableFuture<?> call;
+            try {
+                call = endpoint.operation.start(random);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((result, error) -> {
+                long done = System.nanoTime();
+                endpoint.record((done - intended) / 1000, (done - sent) / 1000, error == null);
+                lastCompletion.accumulateAndGet(done, Math::max);
+                outstanding.decrementAndGet();
+            });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (reporter != null) {
+            reporter.shutdownNow();
+            intervalListener.accept(intervalReport(interval.toNanos() / 1e9));
+        }
+        double elapsedSeconds = (Math.max(lastCompletion.get(), end) - start) / 1e9;
+
+        LoadReport report = new LoadReport(String.format(Locale.ROOT, "Open model at %.1f/s", ratePerSecond),
+                elapsedSeconds, outstanding.get());
+        for (Endpoint endpoint : endpoints) {
+            report.add(endpoint.name, endpoint.succeeded.sum(), endpoint.failed.sum(), endpoint.dropped.sum(),
+                    endpoint.latency, endpoint.service);
+        }
+        report.scheduleLag(lag);
+        return report;
+    }
+
+    private ScheduledExecutorService intervals() {
+        if (intervalListener == null) {
+            return null;
+        }
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-interval");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long nanos = interval.toNanos();
+        reporter.scheduleAtFixedRate(() -> intervalListener.accept(intervalReport(nanos / 1e9)),
+                nanos, nanos, TimeUnit.NANOSECONDS);
+        return reporter;
+    }
+
+    private synchronized LoadReport intervalReport(double seconds) {
+        LoadReport report = new LoadReport("interval", seconds, 0);
+        for (Endpoint endpoint : endpoints) {
+            report.add(endpoint.name, endpoint.intervalSucceeded.sumThenReset(),
+                    endpoint.intervalFailed.sumThenReset(), endpoint.intervalDropped.sumThenReset(),
+                    endpoint.intervalLatency.drain(), endpoint.intervalService.drain());
+        }
+        return report;
+    }
+
+    private Endpoint pick(int roll) {
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private static final class Endpoint {
+        private final String name;
+        private final int weight;
+        private final Operation operation;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LatencyHistogram intervalLatency = new LatencyHistogram();
+        private final LatencyHistogram intervalService = new LatencyHistogram();
+        private final LongAdder intervalSucceeded = new LongAdder();
+        private final LongAdder intervalFailed = new LongAdder();
+        private final LongAdder intervalDropped = new LongAdder();
+
+        private Endpoint(String name, int weight, Operation operation) {
+            this.name = name;
+            this.weight = weight;
+            this.operation = operation;
+        }
+
+        private void record(long latencyMicros, long serviceMicros, boolean ok) {
+            latency.record(latencyMicros);
+            service.record(serviceMicros);
+            intervalLatency.record(latencyMicros);
+            intervalService.record(serviceMicros);
+            if (ok) {
+                succeeded.increment();
+                intervalSucceeded.increment();
+            } else {
+                failed.increment();
+                intervalFailed.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/// One stretch of a [Workload]'s traffic shape. The level is virtual users at fixed
+/// concurrency, or iterations per second at a fixed rate.
+public final class Phase {
+
+    private final String description;
+    private final Duration duration;
+    private final DoubleUnaryOperator level;
+
+    private Phase(String description, Duration duration, DoubleUnaryOperator level) {
+        this.description = description;
+        this.duration = duration;
+        this.level = level;
+    }
+
+    /// Holds one level; the long steady stretch of a soak test.
+    public static Phase soak(double level, Duration duration) {
+        return new Phase("soak(" + level + ")", duration, fraction -> level);
+    }
+
+    /// Moves linearly from one level to another.
+    public static Phase ramp(double from, double to, Duration duration) {
+        return new Phase("ramp(" + from + "->" + to + ")", duration, fraction -> from + (to - from) * fraction);
+    }
+
+    /// Climbs from one level to another in equal stairs of equal length.
+    public static Phase step(double from, double to, int steps, Duration duration) {
+        return new Phase("step(" + from + "->" + to + " in " + steps + ")", duration, fraction -> {
+            int stair = Math.min((int) (fraction * steps), steps - 1);
+            return steps == 1 ? to : from + (to - from) * stair / (steps - 1);
+        });
+    }
+
+    /// Holds `base`, jumps to `peak` for `spike` in the middle of the phase, then drops back.
+    public static Phase spike(double base, double peak, Duration spike, Duration duration) {
+        double start = (1 - (double) spike.toNanos() / duration.toNanos()) / 2;
+        double end = 1 - start;
+        return new Phase("spike(" + base + "->" + peak + ")", duration,
+                fraction -> fraction >= start && fraction < end ? peak : base);
+    }
+
+    /// Parses `ramp(1,50,30s);soak(50,10m);step(50,200,4,2m);spike(50,400,10s,1m)`.
+    /// Durations take ms, s, m or h.
+    public static List<Phase> parse(String phases) {
+        List<Phase> parsed = new ArrayList<>();
+        for (String phase : phases.split(";")) {
+            String trimmed = phase.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int open = trimmed.indexOf('(');
+            if (open < 0 || !trimmed.endsWith(")")) {
+                throw new IllegalArgumentException("Bad phase: " + phase);
+            }
+            String[] args = trimmed.substring(open + 1, trimmed.length() - 1).split(",");
+            switch (trimmed.substring(0, open).trim()) {
+                case "soak":
+                    parsed.add(soak(number(args[0]), duration(args[1])));
+                    break;
+                case "ramp":
+                    parsed.add(ramp(number(args[0]), number(args[1]), duration(args[2])));
+                    break;
+                case "step":
+                    parsed.add(step(number(args[0]), number(args[1]), (int) number(args[2]), duration(args[3])));
+                    break;
+                case "spike":
+                    parsed.add(spike(number(args[0]), number(args[1]), duration(args[2]), duration(args[3])));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown phase: " + phase);
+            }
+        }
+        return parsed;
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+
+    /// The level `nanos` into this phase.
+    public double level(long nanos) {
+        return level.applyAsDouble(Math.min(1.0, (double) nanos / duration.toNanos()));
+    }
+
+    @Override
+    public String toString() {
+        return description + " for " + duration;
+    }
+
+    private static double number(String value) {
+        return Double.parseDouble(value.trim());
+    }
+
+    private static Duration duration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            case 'h':
+                return Duration.ofHours(amount);
+            default:
+                throw new IllegalArgumentException("Bad duration: " + value);
+        }
+    }
+}
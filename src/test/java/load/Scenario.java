@@ -0,0 +1,99 @@
+package load;
+
+import api.LatencyDistribution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/// A weighted user journey for a [Workload]: a sequence of feeds, timed calls and
+/// think-time pauses, e.g.
+///
+/// ```
+/// Scenario.named("browse", 60)
+///         .exec("getBookingIds", session -> bookingSteps.getBookingListIdsAsync(null, null, null, null))
+///         .pause(LatencyDistribution.parse("uniform(200,800)"))
+///         .feed("id", Feeders.random(ids))
+///         .exec("getBooking", session -> bookingSteps.getBookingByIdAsync(session.get("id")));
+/// ```
+///
+/// A failed call ends that run of the scenario, like a user giving up.
+public class Scenario {
+
+    interface Action {
+    }
+
+    static final class Exec implements Action {
+        final String name;
+        final Function<Session, CompletableFuture<?>> call;
+
+        Exec(String name, Function<Session, CompletableFuture<?>> call) {
+            this.name = name;
+            this.call = call;
+        }
+    }
+
+    static final class Pause implements Action {
+        final LatencyDistribution think;
+
+        Pause(LatencyDistribution think) {
+            this.think = think;
+        }
+    }
+
+    static final class Feed implements Action {
+        final String key;
+        final Function<Session, ?> feeder;
+
+        Feed(String key, Function<Session, ?> feeder) {
+            this.key = key;
+            this.feeder = feeder;
+        }
+    }
+
+    private final String name;
+    private final int weight;
+    private final List<Action> actions = new ArrayList<>();
+
+    private Scenario(String name, int weight) {
+        this.name = name;
+        this.weight = weight;
+    }
+
+    public static Scenario named(String name, int weight) {
+        return new Scenario(name, weight);
+    }
+
+    /// Puts the feeder's next value into the session under `key`; feeders that pick
+    /// at random draw from [Session#random()], so a seeded workload feeds the same values.
+    public Scenario feed(String key, Function<Session, ?> feeder) {
+        actions.add(new Feed(key, feeder));
+        return this;
+    }
+
+    /// A timed call; latency, errors and throughput are reported under `name`.
+    public Scenario exec(String name, Function<Session, CompletableFuture<?>> call) {
+        actions.add(new Exec(name, call));
+        return this;
+    }
+
+    /// Think time drawn from the distribution before the next action.
+    public Scenario pause(LatencyDistribution think) {
+        actions.add(new Pause(think));
+        return this;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    List<Action> actions() {
+        return Collections.unmodifiableList(actions);
+    }
+}
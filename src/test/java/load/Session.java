@@ -0,0 +1,35 @@
+package load;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/// State of one scenario run: values fed or saved by earlier actions, and a random
+/// source seeded from the workload seed. Only one action of a session runs at a time.
+public class Session {
+
+    private final Map<String, Object> values = new HashMap<>();
+    private final SplittableRandom random;
+
+    Session(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public SplittableRandom random() {
+        return random;
+    }
+
+    public Session put(String key, Object value) {
+        values.put(key, value);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        T value = (T) values.get(key);
+        if (value == null && !values.containsKey(key)) {
+            throw new IllegalStateException("Nothing fed or saved as " + key);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,272 @@
+package load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/// Runs weighted [Scenario]s through a sequence of [Phase]s, either at a fixed rate
+/// of scenario starts (open model, like [OpenLoadGenerator]) or with a fixed number of
+/// virtual users that each start the next scenario when the last one ends (closed model).
+///
+/// Every exec is timed from when it was due: its scenario's start for the first
+/// call, or the end of the previous action. At a fixed rate, waiting for a free
+/// dispatcher slot therefore counts as latency. With fixed concurrency a slow
+/// server also slows the users down, so compare percentiles across runs at
+/// the same rate, not the same user count.
+public class Workload {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final List<Phase> phases = new ArrayList<>();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong lastCompletion = new AtomicLong();
+    private ScheduledExecutorService timer;
+    private SplittableRandom random = new SplittableRandom(42);
+    private int maxOutstanding = 10_000;
+
+    public Workload scenario(Scenario scenario) {
+        scenarios.add(scenario);
+        return this;
+    }
+
+    public Workload phases(List<Phase> phases) {
+        this.phases.addAll(phases);
+        return this;
+    }
+
+    public Workload phase(Phase phase) {
+        phases.add(phase);
+        return this;
+    }
+
+    public Workload seed(long seed) {
+        this.random = new SplittableRandom(seed);
+        return this;
+    }
+
+    /// At a fixed rate, scenario starts are dropped (and reported) while this many runs are open.
+    public Workload maxOutstanding(int maxOutstanding) {
+        this.maxOutstanding = maxOutstanding;
+        return this;
+    }
+
+    /// Phase levels are scenario starts per second.
+    public LoadReport runAtRate() {
+        return run("rate", () -> {
+            long start = System.nanoTime();
+            long end = start + totalNanos();
+            long intended = start;
+            while (intended < end) {
+                double rate = level(intended - start);
+                if (rate <= 0) {
+                    intended += TICK_NANOS;
+                    continue;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario scenario = pick();
+                if (outstanding.get() >= maxOutstanding) {
+                    stats(scenario.name()).dropped.increment();
+                } else {
+                    outstanding.incrementAndGet();
+                    new Run(scenario, new Session(split()), intended, () -> outstanding.decrementAndGet())
+                            .next(0);
+                }
+                intended += (long) (1e9 / rate);
+            }
+            return start;
+        });
+    }
+
+    /// Phase levels are concurrent virtual users.
+    public LoadReport runAtConcurrency() {
+        return run("concurrency", () -> {
+            AtomicInteger target = new AtomicInteger();
+            long start = System.nanoTime();
+            long end = start + totalNanos();
+            for (long now = start; now < end; now = System.nanoTime()) {
+                target.set((int) Math.round(level(now - start)));
+                while (outstanding.get() < target.get()) {
+                    outstanding.incrementAndGet();
+                    user(target, split());
+                }
+                LockSupport.parkNanos(TICK_NANOS);
+            }
+            target.set(0);
+            return start;
+        });
+    }
+
+    private LoadReport run(String model, LongSupplier drive) {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workload-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long start = drive.getAsLong();
+            long end = start + totalNanos();
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+            while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            double seconds = (Math.max(lastCompletion.get(), end) - start) / 1e9;
+
+            LoadReport report = new LoadReport(String.format(Locale.ROOT, "Workload at fixed %s, %s",
+                    model, phases), seconds, outstanding.get());
+            new TreeMap<>(stats).forEach((name, entry) -> report.add(name, entry.succeeded.sum(), entry.failed.sum(),
+                    entry.dropped.sum(), entry.latency, entry.service));
+            return report;
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    /// A virtual user: runs scenarios back to back until there are more users than the target.
+    /// The next scenario starts from the timer thread, so one that ends at once (a
+    /// failing feeder, a call that fails before it is sent) does not recurse on this stack.
+    private void user(AtomicInteger target, SplittableRandom userRandom) {
+        new Run(pick(), new Session(userRandom), System.nanoTime(), () -> {
+            if (outstanding.get() > target.get()) {
+                outstanding.decrementAndGet();
+            } else {
+                timer.execute(() -> user(target, userRandom));
+            }
+        }).next(0);
+    }
+
+    private synchronized Scenario pick() {
+        int total = scenarios.stream().mapToInt(Scenario::weight).sum();
+        int roll = random.nextInt(total);
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight();
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private synchronized SplittableRandom split() {
+        return random.split();
+    }
+
+    private double level(long nanos) {
+        for (Phase phase : phases) {
+            long length = phase.duration().toNanos();
+            if (nanos < length) {
+                return phase.level(nanos);
+            }
+            nanos -= length;
+        }
+        return 0;
+    }
+
+    private long totalNanos() {
+        return phases.stream().mapToLong(phase -> phase.duration().toNanos()).sum();
+    }
+
+    private Stats stats(String name) {
+        return stats.computeIfAbsent(name, key -> new Stats());
+    }
+
+    /// One pass through a scenario, advancing asynchronously from action to action.
+    private final class Run {
+        private final List<Scenario.Action> actions;
+        private final Session session;
+        private final Runnable done;
+        private long due;
+
+        private Run(Scenario scenario, Session session, long due, Runnable done) {
+            this.actions = scenario.actions();
+            this.session = session;
+            this.due = due;
+            this.done = done;
+        }
+
+        private void next(int index) {
+            if (index == actions.size()) {
+                finish(System.nanoTime());
+                return;
+            }
+            Scenario.Action action = actions.get(index);
+            if (action instanceof Scenario.Feed) {
+                Scenario.Feed feed = (Scenario.Feed) action;
+                Object value;
+                try {
+                    value = feed.feeder.apply(session);
+                } catch (RuntimeException e) {
+                    // Reported as a failed "feed <key>" row; the run ends like a failed call.
+                    stats("feed " + feed.key).failed.increment();
+                    finish(System.nanoTime());
+                    return;
+                }
+                session.put(feed.key, value);
+                next(index + 1);
+            } else if (action instanceof Scenario.Pause) {
+                long pause = (long) (((Scenario.Pause) action).think.sampleMillis(session.random()) * 1e6);
+                due = System.nanoTime() + pause;
+                timer.schedule(() -> next(index + 1), pause, TimeUnit.NANOSECONDS);
+            } else {
+                exec((Scenario.Exec) action, index);
+            }
+        }
+
+        private void exec(Scenario.Exec exec, int index) {
+            Stats entry = stats(exec.name);
+            long sent = System.nanoTime();
+            CompletableFuture<?> call;
+            try {
+                call = exec.call.apply(session);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            long dueAt = due;
+            call.whenComplete((result, error) -> {
+                long now = System.nanoTime();
+                entry.latency.record((now - dueAt) / 1000);
+                entry.service.record((now - sent) / 1000);
+                due = now;
+                if (error == null) {
+                    entry.succeeded.increment();
+                    next(index + 1);
+                } else {
+                    entry.failed.increment();
+                    finish(now);
+                }
+            });
+        }
+
+        private void finish(long now) {
+            lastCompletion.accumulateAndGet(now, Math::max);
+            done.run();
+        }
+    }
+
+    private static final class Stats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+    }
+}
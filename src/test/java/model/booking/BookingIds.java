@@ -0,0 +1,56 @@
+package model.booking;
+
+import java.util.Arrays;
+
+/// GET /booking as plain ids, about 4 bytes each instead of a
+/// [GetBookingIDsResponse] and a boxed Integer per id. Built by
+/// `api.BookingIdsConverterFactory`, which also records duplicate and
+/// non-positive ids in the same pass that reads them.
+public final class BookingIds {
+
+    private final int[] ids;
+    private final int size;
+    private final int[] duplicates;
+    private final int[] nonPositive;
+
+    public BookingIds(int[] ids, int size, int[] duplicates, int[] nonPositive) {
+        this.ids = ids;
+        this.size = size;
+        this.duplicates = duplicates;
+        this.nonPositive = nonPositive;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        return ids[index];
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /// Every repeat of an id already seen, in response order.
+    public int[] duplicates() {
+        return duplicates.clone();
+    }
+
+    public int[] nonPositive() {
+        return nonPositive.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "BookingIds(size=" + size + ", duplicates=" + duplicates.length
+                + ", nonPositive=" + nonPositive.length + ")";
+    }
+}
@@ -0,0 +1,409 @@
+package server;
+
+import api.BookingBranch;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.auth.AuthRequest;
+import model.booking.BookingDates;
+import model.booking.CreateUpdateRequest;
+import model.booking.PartialUpdateRequest;
+import store.BookingQuery;
+import store.BookingStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/// In-process stand-in for restful-booker.herokuapp.com on the loopback interface.
+///
+/// Implements the whole [api.RestfulBookerApi] contract including the real
+/// server's status-code quirks: POST /auth answers 200 with a `reason` for bad
+/// credentials, ping and DELETE answer 201, an unknown id on PUT/PATCH/DELETE
+/// answers 405, and a create with missing fields answers 500.
+///
+/// Requests carrying [api.BookingBranch#HEADER] use the store registered under that
+/// branch via [#branch(String, BookingStore)]; the rest, and unknown branches, use
+/// the main store.
+public class StandInServer {
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String TEXT = "text/plain; charset=utf-8";
+
+    static {
+        // The JDK server writes headers and body separately; with Nagle on, the body
+        // waits for the client's delayed ACK and every response takes ~40 ms.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final BookingStore store;
+    private final String login;
+    private final String password;
+    private final Gson gson = new Gson();
+    private final Set<String> tokens = ConcurrentHashMap.newKeySet();
+    private final Map<String, BookingStore> branches = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StandInServer(BookingStore store, String login, String password) {
+        this.store = store;
+        this.login = login;
+        this.password = password;
+    }
+
+    public synchronized StandInServer start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + "/";
+    }
+
+    public BookingStore store() {
+        return store;
+    }
+
+    public void branch(String name, BookingStore branch) {
+        branches.put(name, branch);
+    }
+
+    public void dropBranch(String name) {
+        branches.remove(name);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (RuntimeException e) {
+            text(exchange, 500, "Internal Server Error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String branch = exchange.getRequestHeaders().getFirst(BookingBranch.HEADER);
+        BookingStore store = branch == null ? this.store : branches.getOrDefault(branch, this.store);
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+
+        if (path.length == 1 && path[0].equals("ping") && method.equals("GET")) {
+            text(exchange, 201, "Created");
+        } else if (path.length == 1 && path[0].equals("auth") && method.equals("POST")) {
+            auth(exchange);
+        } else if (path.length == 1 && path[0].equals("booking") && method.equals("GET")) {
+            list(exchange, store);
+        } else if (path.length == 1 && path[0].equals("booking") && method.equals("POST")) {
+            create(exchange, store);
+        } else if (path.length == 2 && path[0].equals("booking")) {
+            Integer id = parseId(path[1]);
+            if (id == null) {
+                if (method.equals("GET")) {
+                    text(exchange, 404, "Not Found");
+                } else {
+                    text(exchange, 405, "Method Not Allowed");
+                }
+                return;
+            }
+            switch (method) {
+                case "GET":
+                    get(exchange, store, id);
+                    break;
+                case "PUT":
+                    update(exchange, store, id);
+                    break;
+                case "PATCH":
+                    partialUpdate(exchange, store, id);
+                    break;
+                case "DELETE":
+                    delete(exchange, store, id);
+                    break;
+                default:
+                    text(exchange, 404, "Not Found");
+            }
+        } else {
+            text(exchange, 404, "Not Found");
+        }
+    }
+
+    private void auth(HttpExchange exchange) throws IOException {
+        AuthRequest body = read(exchange, AuthRequest.class);
+        JsonObject response = new JsonObject();
+
+        if (body != null && login.equals(body.getUsername()) && password.equals(body.getPassword())) {
+            String token = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 4);
+            tokens.add(token);
+            response.addProperty("token", token);
+        } else {
+            response.addProperty("reason", "Bad credentials");
+        }
+        json(exchange, 200, response);
+    }
+
+    private void list(HttpExchange exchange, BookingStore store) throws IOException {
+        Map<String, String> params = query(exchange.getRequestURI());
+        BookingQuery query;
+        try {
+            query = BookingQuery.builder()
+                    .firstname(params.get("firstname"))
+                    .lastname(params.get("lastname"))
+                    .checkin(date(params.get("checkin")))
+                    .checkout(date(params.get("checkout")))
+                    .build();
+        } catch (DateTimeParseException e) {
+            text(exchange, 500, "Internal Server Error");
+            return;
+        }
+
+        StringBuilder body = new StringBuilder("[");
+        for (int id : store.find(query)) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append("{\"bookingid\":").append(id).append('}');
+        }
+        send(exchange, 200, JSON, body.append(']').toString());
+    }
+
+    private void get(HttpExchange exchange, BookingStore store, int id) throws IOException {
+        if (!acceptsJson(exchange)) {
+            text(exchange, 418, "I'm a Teapot");
+            return;
+        }
+        CreateUpdateRequest booking = store.get(id);
+        if (booking == null) {
+            text(exchange, 404, "Not Found");
+            return;
+        }
+        json(exchange, 200, booking);
+    }
+
+    private void create(HttpExchange exchange, BookingStore store) throws IOException {
+        CreateUpdateRequest booking = read(exchange, CreateUpdateRequest.class);
+        if (!isComplete(booking)) {
+            text(exchange, 500, "Internal Server Error");
+            return;
+        }
+        int id = store.create(booking);
+
+        JsonObject response = new JsonObject();
+        response.addProperty("bookingid", id);
+        response.add("booking", gson.toJsonTree(booking));
+        json(exchange, 200, response);
+    }
+
+    private void update(HttpExchange exchange, BookingStore store, int id) throws IOException {
+        if (!authorized(exchange)) {
+            text(exchange, 403, "Forbidden");
+            return;
+        }
+        CreateUpdateRequest booking = read(exchange, CreateUpdateRequest.class);
+        if (!isComplete(booking)) {
+            text(exchange, 400, "Bad Request");
+            return;
+        }
+        if (!store.update(id, booking)) {
+            text(exchange, 405, "Method Not Allowed");
+            return;
+        }
+        json(exchange, 200, booking);
+    }
+
+    private void partialUpdate(HttpExchange exchange, BookingStore store, int id) throws IOException {
+        if (!authorized(exchange)) {
+            text(exchange, 403, "Forbidden");
+            return;
+        }
+        PartialUpdateRequest patch = read(exchange, PartialUpdateRequest.class);
+        CreateUpdateRequest current = store.get(id);
+        if (current == null) {
+            text(exchange, 405, "Method Not Allowed");
+            return;
+        }
+        CreateUpdateRequest merged = merge(current, patch == null ? new PartialUpdateRequest() : patch);
+        if (!isComplete(merged)) {
+            text(exchange, 400, "Bad Request");
+            return;
+        }
+        if (!store.update(id, merged)) {
+            text(exchange, 405, "Method Not Allowed");
+            return;
+        }
+        json(exchange, 200, merged);
+    }
+
+    private void delete(HttpExchange exchange, BookingStore store, int id) throws IOException {
+        drain(exchange);
+        if (!authorized(exchange)) {
+            text(exchange, 403, "Forbidden");
+            return;
+        }
+        if (!store.delete(id)) {
+            text(exchange, 405, "Method Not Allowed");
+            return;
+        }
+        text(exchange, 201, "Created");
+    }
+
+    private boolean authorized(HttpExchange exchange) {
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookie != null) {
+            for (String part : cookie.split(";")) {
+                String[] pair = part.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals("token") && tokens.contains(pair[1])) {
+                    return true;
+                }
+            }
+        }
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null && authorization.startsWith("Basic ")) {
+            try {
+                String credentials = new String(
+                        Base64.getDecoder().decode(authorization.substring("Basic ".length()).trim()),
+                        StandardCharsets.UTF_8);
+                return credentials.equals(login + ":" + password);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsJson(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        return accept == null || accept.contains("application/json") || accept.contains("*/*");
+    }
+
+    private static boolean isComplete(CreateUpdateRequest booking) {
+        if (booking == null || booking.getFirstname() == null || booking.getLastname() == null
+                || booking.getTotalprice() == null || booking.getDepositpaid() == null
+                || booking.getBookingdates() == null) {
+            return false;
+        }
+        try {
+            return date(booking.getBookingdates().getCheckin()) != null
+                    && date(booking.getBookingdates().getCheckout()) != null;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static CreateUpdateRequest merge(CreateUpdateRequest current, PartialUpdateRequest patch) {
+        BookingDates dates = current.getBookingdates();
+        if (patch.getBookingdates() != null) {
+            dates = BookingDates.builder()
+                    .checkin(patch.getBookingdates().getCheckin() != null
+                            ? patch.getBookingdates().getCheckin() : dates.getCheckin())
+                    .checkout(patch.getBookingdates().getCheckout() != null
+                            ? patch.getBookingdates().getCheckout() : dates.getCheckout())
+                    .build();
+        }
+        return CreateUpdateRequest.builder()
+                .firstname(patch.getFirstname() != null ? patch.getFirstname() : current.getFirstname())
+                .lastname(patch.getLastname() != null ? patch.getLastname() : current.getLastname())
+                .totalprice(patch.getTotalprice() != null ? patch.getTotalprice() : current.getTotalprice())
+                .depositpaid(patch.getDepositpaid() != null ? patch.getDepositpaid() : current.getDepositpaid())
+                .bookingdates(dates)
+                .additionalneeds(patch.getAdditionalneeds() != null
+                        ? patch.getAdditionalneeds() : current.getAdditionalneeds())
+                .build();
+    }
+
+    private static LocalDate date(String value) {
+        return value == null || value.isEmpty() ? null : LocalDate.parse(value);
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private <T> T read(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return gson.fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), type);
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private void json(HttpExchange exchange, int code, Object body) throws IOException {
+        send(exchange, code, JSON, gson.toJson(body));
+    }
+
+    private static void text(HttpExchange exchange, int code, String body) throws IOException {
+        send(exchange, code, TEXT, body);
+    }
+
+    private static void send(HttpExchange exchange, int code, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -1,22 +1,133 @@
 package steps;
 
+import api.ApiContext;
 import api.RestfulBookerApi;
+import api.RestfulBookerAsyncApi;
 import api.RetrofitClient;
 import model.auth.AuthRequest;
 import model.auth.AuthResponse;
+import okhttp3.Credentials;
 import retrofit2.Response;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 public class AuthSteps {
 
+    /// Shared by all instances: tests build a new AuthSteps each time.
+    private static final Map<String, CompletableFuture<CachedToken>> TOKENS = new ConcurrentHashMap<>();
+    private static final Map<String, String> BASIC_AUTH = new ConcurrentHashMap<>();
+
     private final RestfulBookerApi api;
+    private final RestfulBookerAsyncApi asyncApi;
 
     public AuthSteps(RestfulBookerApi api) {
+        this(api, RetrofitClient.getClient(
+                RestfulBookerAsyncApi.class,
+                ApiContext.get().config().baseUrl()));
+    }
+
+    public AuthSteps(RestfulBookerApi api, RestfulBookerAsyncApi asyncApi) {
         this.api = api;
+        this.asyncApi = asyncApi;
     }
+
+    /// Always goes to the server and never touches the cache, so negative
+    /// credential tests see exactly what POST /auth returns.
     public Response<AuthResponse> createToken(String login, String password) throws Exception {
 
         AuthRequest body = new AuthRequest(login, password);
 
-        return api.createToken(body).execute();
+        return StepEvent.record("AuthSteps.createToken", () -> api.createToken(body).execute());
+    }
+
+    public CompletableFuture<Response<AuthResponse>> createTokenAsync(String login, String password) {
+
+        AuthRequest body = new AuthRequest(login, password);
+
+        return StepEvent.recordAsync("AuthSteps.createTokenAsync", asyncApi.createToken(body));
+    }
+
+    /// Cached token for valid credentials, refreshed after auth.token.ttl.seconds.
+    public String token(String login, String password) throws Exception {
+        return StepEvent.record("AuthSteps.token", () -> Futures.await(cachedToken(login, password)).token);
+    }
+
+    /// Cached `Cookie` header value (`token=...`) for the token endpoints.
+    public String tokenCookie(String login, String password) throws Exception {
+        return StepEvent.record("AuthSteps.tokenCookie", () -> Futures.await(tokenCookieAsync(login, password)));
+    }
+
+    public CompletableFuture<String> tokenCookieAsync(String login, String password) {
+        return StepEvent.recordAsync("AuthSteps.tokenCookieAsync",
+                cachedToken(login, password).thenApply(cached -> cached.cookie));
+    }
+
+    /// Cached `Authorization` header value for the basic-auth endpoints.
+    public String basicAuth(String login, String password) {
+        return BASIC_AUTH.computeIfAbsent(key(login, password),
+                key -> Credentials.basic(login, password));
+    }
+
+    public static void invalidate(String login, String password) {
+        TOKENS.remove(key(login, password));
+    }
+
+    /// Single flight: concurrent callers for the same credentials share one POST /auth.
+    private CompletableFuture<CachedToken> cachedToken(String login, String password) {
+        String key = key(login, password);
+        long ttl = TimeUnit.SECONDS.toNanos(ApiContext.get().config().tokenTtlSeconds());
+
+        while (true) {
+            CompletableFuture<CachedToken> current = TOKENS.get(key);
+            if (current != null && (!current.isDone()
+                    || !current.isCompletedExceptionally() && current.join().isFresh(ttl))) {
+                return current;
+            }
+
+            CompletableFuture<CachedToken> refresh = new CompletableFuture<>();
+            boolean won = current == null
+                    ? TOKENS.putIfAbsent(key, refresh) == null
+                    : TOKENS.replace(key, current, refresh);
+            if (!won) {
+                continue;
+            }
+
+            createTokenAsync(login, password).whenComplete((response, error) -> {
+                if (error == null && (response.code() != 200 || response.body() == null
+                        || response.body().getToken() == null)) {
+                    error = new IllegalStateException("No token for " + login + ": HTTP " + response.code()
+                            + (response.body() != null ? " " + response.body().getReason() : ""));
+                }
+                if (error != null) {
+                    TOKENS.remove(key, refresh);
+                    refresh.completeExceptionally(error);
+                } else {
+                    refresh.complete(new CachedToken(response.body().getToken()));
+                }
+            });
+            return refresh;
+        }
+    }
+
+    private static String key(String login, String password) {
+        return login + '\u0000' + password;
+    }
+
+    private static final class CachedToken {
+        private final String token;
+        private final String cookie;
+        private final long createdAt = System.nanoTime();
+
+        private CachedToken(String token) {
+            this.token = token;
+            this.cookie = "token=" + token;
+        }
+
+        private boolean isFresh(long ttlNanos) {
+            return System.nanoTime() - createdAt < ttlNanos;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package steps;
+
+import api.ApiContext;
+import api.RestfulBookerApi;
+import api.RestfulBookerAsyncApi;
+import api.RetrofitClient;
+import config.TestConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Remembers every booking created through [BookingSteps] and deletes them all
+/// when the suite context shuts down, a bounded number of requests at a time and
+/// with one cached token, so the shared environment does not grow run after run.
+public final class BookingCleanup {
+
+    private static final Set<Integer> CREATED = ConcurrentHashMap.newKeySet();
+
+    private static ApiContext registeredWith;
+
+    private BookingCleanup() {
+    }
+
+    public static void track(int bookingId) {
+        register();
+        CREATED.add(bookingId);
+    }
+
+    /// Idempotent per context; called before anything is created.
+    public static synchronized void register() {
+        ApiContext context = ApiContext.get();
+        if (registeredWith != context) {
+            registeredWith = context;
+            context.onShutdown(BookingCleanup::deleteTracked);
+        }
+    }
+
+    public static void deleteTracked() {
+        TestConfig config = ApiContext.get().config();
+        List<Integer> ids = new ArrayList<>(CREATED);
+        CREATED.removeAll(ids);
+        if (!config.cleanupEnabled() || ids.isEmpty()) {
+            return;
+        }
+
+        RestfulBookerAsyncApi api =
+                RetrofitClient.getClient(RestfulBookerAsyncApi.class, config.baseUrl());
+
+        String token;
+        try {
+            AuthSteps authSteps = new AuthSteps(
+                    RetrofitClient.getClient(RestfulBookerApi.class, config.baseUrl()), api);
+            token = authSteps.tokenCookie(config.login(), config.password());
+        } catch (Exception e) {
+            System.err.println("Cleanup skipped, " + ids.size() + " bookings left behind: " + e);
+            return;
+        }
+
+        LongAdder deleted = new LongAdder();
+        LongAdder gone = new LongAdder();
+        LongAdder failed = new LongAdder();
+        Semaphore permits = new Semaphore(config.cleanupConcurrency());
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (int id : ids) {
+            permits.acquireUninterruptibly();
+            requests.add(api.deleteBookingToken(token, id)
+                    .whenComplete((response, error) -> {
+                        permits.release();
+                        if (error != null) {
+                            failed.increment();
+                        } else if (response.code() == 201) {
+                            deleted.increment();
+                        } else if (response.code() == 404 || response.code() == 405) {
+                            gone.increment();
+                        } else {
+                            failed.increment();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(error -> null)
+                .join();
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        System.out.printf("Booking cleanup: deleted=%d, already gone=%d, failed=%d in %.2f s (%.0f deletes/s)%n",
+                deleted.sum(), gone.sum(), failed.sum(), seconds, ids.size() / seconds);
+    }
+}
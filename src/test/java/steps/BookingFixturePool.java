@@ -0,0 +1,201 @@
+package steps;
+
+import api.ApiContext;
+import api.BookingBranch;
+import api.RestfulBookerApi;
+import api.RetrofitClient;
+import config.TestConfig;
+import data.BookingData;
+import model.booking.CreateResponse;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Bookings created ahead of time, concurrently, and handed to tests so the
+/// create round trip is off the test's critical path.
+///
+/// A MUTATING lease takes a booking exclusively and never gives it back: the test
+/// may update or delete it. READ_ONLY leases share a small set of bookings that no
+/// test is allowed to change. When fewer than fixtures.pool.low.watermark fresh
+/// bookings are left, the pool tops itself up in the background.
+public class BookingFixturePool {
+
+    public enum Lease { READ_ONLY, MUTATING }
+
+    private static final long WAIT_FOR_REFILL_MS = 5_000;
+
+    private static BookingFixturePool shared;
+
+    private final BookingSteps steps;
+    private final int size;
+    private final int lowWatermark;
+    private final int readOnlySize;
+
+    private final BlockingQueue<CreateResponse> fresh = new LinkedBlockingQueue<>();
+    private final List<CreateResponse> readOnly = new CopyOnWriteArrayList<>();
+    private final AtomicInteger readOnlyCursor = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder mutatingLeases = new LongAdder();
+    private final LongAdder readOnlyLeases = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BookingFixturePool(BookingSteps steps, int size, int lowWatermark, int readOnlySize) {
+        this.steps = steps;
+        this.size = size;
+        this.lowWatermark = lowWatermark;
+        this.readOnlySize = readOnlySize;
+    }
+
+    /// Suite-wide pool against base.url; filled on first use and closed with [ApiContext].
+    public static synchronized BookingFixturePool shared() {
+        if (shared == null) {
+            ApiContext context = ApiContext.get();
+            TestConfig config = context.config();
+            RestfulBookerApi api = RetrofitClient.getClient(RestfulBookerApi.class, config.baseUrl());
+
+            BookingFixturePool pool = new BookingFixturePool(new BookingSteps(api),
+                    config.fixturePoolSize(),
+                    config.fixturePoolLowWatermark(),
+                    config.fixturePoolReadOnly());
+            BookingCleanup.register();
+            context.onShutdown(() -> {
+                synchronized (BookingFixturePool.class) {
+                    shared = null;
+                }
+                pool.close();
+            });
+            pool.refill();
+            shared = pool;
+        }
+        return shared;
+    }
+
+    public CreateResponse lease(Lease lease) throws Exception {
+        if (lease == Lease.READ_ONLY) {
+            readOnlyLeases.increment();
+            return leaseReadOnly();
+        }
+        mutatingLeases.increment();
+        return take();
+    }
+
+    /// With no shared set configured, each READ_ONLY lease gets a booking of its own.
+    private CreateResponse leaseReadOnly() throws Exception {
+        if (readOnlySize <= 0) {
+            return take();
+        }
+        if (readOnly.size() < readOnlySize) {
+            synchronized (readOnly) {
+                if (readOnly.size() < readOnlySize) {
+                    CreateResponse booking = take();
+                    readOnly.add(booking);
+                    return booking;
+                }
+            }
+        }
+        return readOnly.get(Math.floorMod(readOnlyCursor.getAndIncrement(), readOnly.size()));
+    }
+
+    private CreateResponse take() throws Exception {
+        CreateResponse booking = fresh.poll();
+        if (booking == null && inFlight.get() > 0) {
+            booking = fresh.poll(WAIT_FOR_REFILL_MS, TimeUnit.MILLISECONDS);
+        }
+        refill();
+        if (booking == null) {
+            misses.increment();
+            booking = createShared();
+        }
+        return booking;
+    }
+
+    /// A miss creates inline, but like [#refill()] outside the caller's branch: the
+    /// booking may end up in the shared READ_ONLY set.
+    private CreateResponse createShared() throws Exception {
+        String branch = BookingBranch.current();
+        BookingBranch.set(null);
+        try {
+            return steps.create(new BookingData().defaultBooking());
+        } finally {
+            BookingBranch.set(branch);
+        }
+    }
+
+    /// Tops up to the pool size once fewer than lowWatermark bookings are ready or coming.
+    /// Stops after a full pool's worth of consecutive failures; leases then create inline.
+    /// Pooled bookings are shared, so they are created outside the caller's [BookingBranch].
+    public void refill() {
+        if (closed || consecutiveFailures.get() >= size
+                || fresh.size() + inFlight.get() >= lowWatermark) {
+            return;
+        }
+        String branch = BookingBranch.current();
+        BookingBranch.set(null);
+        try {
+            fire(size - fresh.size() - inFlight.get());
+        } finally {
+            BookingBranch.set(branch);
+        }
+    }
+
+    private void fire(int missing) {
+        for (int i = 0; i < missing; i++) {
+            if (inFlight.incrementAndGet() + fresh.size() > size) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            steps.createAsync(new BookingData().defaultBooking())
+                    .whenComplete((booking, error) -> {
+                        if (error == null) {
+                            created.increment();
+                            consecutiveFailures.set(0);
+                            fresh.add(booking);
+                        } else {
+                            failed.increment();
+                            consecutiveFailures.incrementAndGet();
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+    }
+
+    public int available() {
+        return fresh.size();
+    }
+
+    /// Stops refilling and lets in-flight creates land, so cleanup sees their ids.
+    public void close() {
+        closed = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_FOR_REFILL_MS);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        System.out.println("Booking fixture pool: " + this);
+    }
+
+    @Override
+    public String toString() {
+        return "created=" + created.sum()
+                + ", failed=" + failed.sum()
+                + ", mutating leases=" + mutatingLeases.sum()
+                + ", read-only leases=" + readOnlyLeases.sum()
+                + ", shared read-only=" + readOnly.size()
+                + ", misses=" + misses.sum()
+                + ", unused=" + fresh.size();
+    }
+}
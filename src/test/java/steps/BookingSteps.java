@@ -1,14 +1,21 @@
 package steps;
 
+import api.ApiContext;
 import api.RestfulBookerApi;
+import api.RestfulBookerAsyncApi;
 import api.RetrofitClient;
+import model.booking.BookingIds;
 import model.booking.BookingResponse;
 import model.booking.CreateResponse;
 import model.booking.CreateUpdateRequest;
 import model.booking.GetBookingIDsResponse;
 import retrofit2.Response;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -17,36 +24,107 @@ public class BookingSteps {
     protected final String ACCEPT = "application/json";
 
     private final RestfulBookerApi api;
+    private final RestfulBookerAsyncApi asyncApi;
 
     public BookingSteps(RestfulBookerApi api) {
+        this(api, RetrofitClient.getClient(
+                RestfulBookerAsyncApi.class,
+                ApiContext.get().config().baseUrl()));
+    }
+
+    public BookingSteps(RestfulBookerApi api, RestfulBookerAsyncApi asyncApi) {
         this.api = api;
+        this.asyncApi = asyncApi;
     }
 
     public BookingResponse getBookingById(int id) throws Exception {
 
-        Response<BookingResponse> response =
-                api.getBooking(ACCEPT, id)
-                        .execute();
+        return StepEvent.record("BookingSteps.getBookingById", () -> {
+            Response<BookingResponse> response =
+                    api.getBooking(ACCEPT, id)
+                            .execute();
 
-        assertThat(response.code()).isEqualTo(200);
-        assertThat(response.body()).isNotNull();
+            return booking(response);
+        });
+    }
 
-        return response.body();
+    public CompletableFuture<BookingResponse> getBookingByIdAsync(int id) {
+
+        return StepEvent.recordAsync("BookingSteps.getBookingByIdAsync",
+                asyncApi.getBooking(ACCEPT, id)
+                        .thenApply(this::booking));
     }
 
     public CreateResponse create(CreateUpdateRequest body) throws Exception {
 
-        Response<CreateResponse> response =
-                api.createBooking(
-                        CONTENT_TYPE,
-                        ACCEPT,
-                        body
-                ).execute();
+        return StepEvent.record("BookingSteps.create", () -> {
+            Response<CreateResponse> response =
+                    api.createBooking(
+                            CONTENT_TYPE,
+                            ACCEPT,
+                            body
+                    ).execute();
 
-        assertThat(response.code()).isEqualTo(200);
-        assertThat(response.body()).isNotNull();
+            return created(response);
+        });
+    }
 
-        return response.body();
+    public CompletableFuture<CreateResponse> createAsync(CreateUpdateRequest body) {
+
+        return StepEvent.recordAsync("BookingSteps.createAsync",
+                asyncApi.createBooking(
+                                CONTENT_TYPE,
+                                ACCEPT,
+                                body)
+                        .thenApply(this::created));
+    }
+
+    /// Creates all bookings concurrently with blocking calls on the suite executor;
+    /// in virtual-thread mode each create gets its own virtual thread.
+    public List<CreateResponse> createAll(List<CreateUpdateRequest> bodies) throws Exception {
+
+        return StepEvent.record("BookingSteps.createAll", () -> createAllOnExecutor(bodies));
+    }
+
+    private List<CreateResponse> createAllOnExecutor(List<CreateUpdateRequest> bodies) throws Exception {
+
+        ExecutorService executor = ApiContext.get().executor();
+
+        List<CompletableFuture<CreateResponse>> futures = new ArrayList<>();
+        for (CreateUpdateRequest body : bodies) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return create(body);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        List<CreateResponse> created = new ArrayList<>();
+        for (CompletableFuture<CreateResponse> future : futures) {
+            created.add(Futures.await(future));
+        }
+        return created;
+    }
+
+    public CompletableFuture<BookingResponse> updateAsync(int id, CreateUpdateRequest body, String tokenCookie) {
+
+        return StepEvent.recordAsync("BookingSteps.updateAsync",
+                asyncApi.updateBookingToken(
+                                CONTENT_TYPE,
+                                ACCEPT,
+                                tokenCookie,
+                                id,
+                                body)
+                        .thenApply(this::booking));
+    }
+
+    public CompletableFuture<Void> deleteAsync(int id, String tokenCookie) {
+
+        return StepEvent.recordAsync("BookingSteps.deleteAsync",
+                asyncApi.deleteBookingToken(tokenCookie, id)
+                        .thenAccept(response -> assertThat(response.code()).isEqualTo(201)));
     }
 
     public Response <List<GetBookingIDsResponse>> getBookingListIds(String firstname,
@@ -55,6 +133,52 @@ public class BookingSteps {
                                                                        String checkout) throws Exception {
 
 
-        return api.getBookingIDs(firstname, lastname, checkin, checkout).execute();
+        return StepEvent.record("BookingSteps.getBookingListIds",
+                () -> api.getBookingIDs(firstname, lastname, checkin, checkout).execute());
+    }
+
+    public CompletableFuture<Response<List<GetBookingIDsResponse>>> getBookingListIdsAsync(String firstname,
+                                                                                         String lastname,
+                                                                                         String checkin,
+                                                                                         String checkout) {
+
+        return StepEvent.recordAsync("BookingSteps.getBookingListIdsAsync",
+                asyncApi.getBookingIDs(firstname, lastname, checkin, checkout));
+    }
+
+    /// GET /booking as plain ids; for long lists where the wrapper objects add up.
+    public Response<BookingIds> getBookingIdArray(String firstname,
+                                                  String lastname,
+                                                  String checkin,
+                                                  String checkout) throws Exception {
+
+        return StepEvent.record("BookingSteps.getBookingIdArray",
+                () -> api.getBookingIDArray(firstname, lastname, checkin, checkout).execute());
+    }
+
+    public CompletableFuture<Response<BookingIds>> getBookingIdArrayAsync(String firstname,
+                                                                          String lastname,
+                                                                          String checkin,
+                                                                          String checkout) {
+
+        return StepEvent.recordAsync("BookingSteps.getBookingIdArrayAsync",
+                asyncApi.getBookingIDArray(firstname, lastname, checkin, checkout));
+    }
+
+    private BookingResponse booking(Response<BookingResponse> response) {
+
+        assertThat(response.code()).isEqualTo(200);
+        assertThat(response.body()).isNotNull();
+
+        return response.body();
+    }
+
+    private CreateResponse created(Response<CreateResponse> response) {
+
+        assertThat(response.code()).isEqualTo(200);
+        assertThat(response.body()).isNotNull();
+
+        BookingCleanup.track(response.body().getBookingid());
+        return response.body();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package steps;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.concurrent.CompletableFuture;
+
+/// One [BookingSteps] or [AuthSteps] step on the Flight Recorder timeline, around
+/// the API calls it makes. Async steps end when their future completes. While no
+/// recording enables the event, a step pays for one check and the lambda.
+@Name("booker.Step")
+@Label("Step")
+@Description("A booking or auth step, from its start until its result is ready")
+@Category({"Restful Booker", "Steps"})
+@StackTrace(false)
+public class StepEvent extends Event {
+
+    @FunctionalInterface
+    public interface Step<T> {
+        T run() throws Exception;
+    }
+
+    @Label("Step")
+    String step;
+
+    @Label("Async")
+    boolean async;
+
+    @Label("Failure")
+    String failure;
+
+    /// Runs `body` as the step `name`.
+    public static <T> T record(String name, Step<T> body) throws Exception {
+        StepEvent event = new StepEvent();
+        if (!event.isEnabled()) {
+            return body.run();
+        }
+        event.begin();
+        try {
+            return body.run();
+        } catch (Exception | Error e) {
+            event.failure = e.toString();
+            throw e;
+        } finally {
+            event.finish(name);
+        }
+    }
+
+    /// Starts the step `name` now and ends it when the returned future completes.
+    public static <T> CompletableFuture<T> recordAsync(String name, CompletableFuture<T> future) {
+        StepEvent event = new StepEvent();
+        if (!event.isEnabled()) {
+            return future;
+        }
+        event.async = true;
+        event.begin();
+        return future.whenComplete((result, error) -> {
+            if (error != null) {
+                event.failure = error.toString();
+            }
+            event.finish(name);
+        });
+    }
+
+    private void finish(String name) {
+        end();
+        if (shouldCommit()) {
+            step = name;
+            commit();
+        }
+    }
+}
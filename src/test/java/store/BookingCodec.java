@@ -0,0 +1,82 @@
+package store;
+
+import model.booking.BookingDates;
+import model.booking.CreateUpdateRequest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/// Compact binary form of a booking for the journal and snapshots.
+/// Strings are a length (-1 for null) plus UTF-8 bytes; nullable numbers carry a flag byte.
+final class BookingCodec {
+
+    private BookingCodec() {
+    }
+
+    static ByteBuffer write(ByteBuffer buffer, CreateUpdateRequest booking) {
+        BookingDates dates = booking.getBookingdates();
+        buffer = writeString(buffer, booking.getFirstname());
+        buffer = writeString(buffer, booking.getLastname());
+        buffer = ensure(buffer, 6);
+        if (booking.getTotalprice() == null) {
+            buffer.put((byte) 0).putInt(0);
+        } else {
+            buffer.put((byte) 1).putInt(booking.getTotalprice());
+        }
+        buffer.put(booking.getDepositpaid() == null ? 2 : booking.getDepositpaid() ? (byte) 1 : 0);
+        buffer = writeString(buffer, dates == null ? null : dates.getCheckin());
+        buffer = writeString(buffer, dates == null ? null : dates.getCheckout());
+        return writeString(buffer, booking.getAdditionalneeds());
+    }
+
+    static CreateUpdateRequest read(ByteBuffer buffer) {
+        String firstname = readString(buffer);
+        String lastname = readString(buffer);
+        boolean hasPrice = buffer.get() == 1;
+        int price = buffer.getInt();
+        byte deposit = buffer.get();
+        String checkin = readString(buffer);
+        String checkout = readString(buffer);
+        String additionalneeds = readString(buffer);
+
+        return CreateUpdateRequest.builder()
+                .firstname(firstname)
+                .lastname(lastname)
+                .totalprice(hasPrice ? price : null)
+                .depositpaid(deposit == 2 ? null : deposit == 1)
+                .bookingdates(BookingDates.builder()
+                        .checkin(checkin)
+                        .checkout(checkout)
+                        .build())
+                .additionalneeds(additionalneeds)
+                .build();
+    }
+
+    /// Returns a buffer with at least `bytes` remaining, copying into a bigger one if needed.
+    static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    private static ByteBuffer writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            return ensure(buffer, 4).putInt(-1);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return ensure(buffer, 4 + bytes.length).putInt(bytes.length).put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,21 @@
+package store;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/// GET /booking filters; a null field does not filter. Dates are inclusive bounds:
+/// checkin matches bookings starting on or after it, checkout those ending on or before it.
+@Data
+@Builder
+public class BookingQuery {
+    private String firstname;
+    private String lastname;
+    private LocalDate checkin;
+    private LocalDate checkout;
+
+    public boolean isEmpty() {
+        return firstname == null && lastname == null && checkin == null && checkout == null;
+    }
+}
@@ -0,0 +1,35 @@
+package store;
+
+import model.booking.CreateUpdateRequest;
+
+import java.util.function.ObjIntConsumer;
+
+/// Booking state behind a local stand-in for the restful-booker API.
+/// Bookings are stored by reference: callers hand over ownership on create and
+/// update, and must not mutate what [#get(int)] returns.
+public interface BookingStore {
+
+    /// Stores a validated booking and returns its new id.
+    int create(CreateUpdateRequest booking);
+
+    /// The booking, or null when the id is unknown.
+    CreateUpdateRequest get(int id);
+
+    /// Replaces an existing booking; false when the id is unknown.
+    boolean update(int id, CreateUpdateRequest booking);
+
+    /// False when the id is unknown.
+    boolean delete(int id);
+
+    /// Ids of matching bookings in ascending order.
+    int[] find(BookingQuery query);
+
+    int size();
+
+    /// Puts a booking under a known id, e.g. when replaying a journal; later
+    /// creates continue after the highest id seen.
+    void restore(int id, CreateUpdateRequest booking);
+
+    /// Visits live bookings in ascending id order.
+    void forEach(ObjIntConsumer<CreateUpdateRequest> visitor);
+}
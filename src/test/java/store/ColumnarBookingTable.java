@@ -0,0 +1,183 @@
+package store;
+
+import model.booking.BookingDates;
+import model.booking.BookingResponse;
+import model.booking.CreateUpdateRequest;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/// Bookings stored column by column in primitive arrays, one row per booking id:
+/// dictionary codes for the names and additional needs, the price, a deposit
+/// byte, and the dates as epoch days. A row costs 25 bytes plus its share of the
+/// dictionaries, against a few hundred bytes for a [CreateUpdateRequest] with its
+/// [BookingDates] and date strings, and adds no objects for the GC to trace.
+///
+/// Not thread-safe; callers such as [IndexedBookingStore] guard it with their own lock.
+/// Dates must be ISO `yyyy-MM-dd`, as the booking API sends them.
+public class ColumnarBookingTable {
+
+    /// Stored for a null price or date.
+    public static final int NULL = Integer.MIN_VALUE;
+
+    private static final byte DEPOSIT_FALSE = 0;
+    private static final byte DEPOSIT_TRUE = 1;
+    private static final byte DEPOSIT_NULL = 2;
+
+    private final StringDictionary firstnames = new StringDictionary();
+    private final StringDictionary lastnames = new StringDictionary();
+    private final StringDictionary needs = new StringDictionary();
+    private final BitSet live = new BitSet();
+
+    private int[] firstname;
+    private int[] lastname;
+    private int[] price;
+    private byte[] deposit;
+    private int[] checkin;
+    private int[] checkout;
+    private int[] additionalneeds;
+    private int size;
+
+    public ColumnarBookingTable() {
+        this(1024);
+    }
+
+    public ColumnarBookingTable(int capacity) {
+        firstname = new int[capacity];
+        lastname = new int[capacity];
+        price = new int[capacity];
+        deposit = new byte[capacity];
+        checkin = new int[capacity];
+        checkout = new int[capacity];
+        additionalneeds = new int[capacity];
+    }
+
+    /// Stores the booking in this row, replacing whatever was there.
+    public void set(int row, CreateUpdateRequest booking) {
+        ensureCapacity(row);
+        BookingDates dates = booking.getBookingdates();
+        firstname[row] = firstnames.encode(booking.getFirstname());
+        lastname[row] = lastnames.encode(booking.getLastname());
+        price[row] = booking.getTotalprice() == null ? NULL : booking.getTotalprice();
+        deposit[row] = booking.getDepositpaid() == null ? DEPOSIT_NULL
+                : booking.getDepositpaid() ? DEPOSIT_TRUE : DEPOSIT_FALSE;
+        checkin[row] = day(dates == null ? null : dates.getCheckin());
+        checkout[row] = day(dates == null ? null : dates.getCheckout());
+        additionalneeds[row] = needs.encode(booking.getAdditionalneeds());
+        if (!live.get(row)) {
+            live.set(row);
+            size++;
+        }
+    }
+
+    public boolean remove(int row) {
+        if (!contains(row)) {
+            return false;
+        }
+        live.clear(row);
+        size--;
+        return true;
+    }
+
+    public boolean contains(int row) {
+        return row >= 0 && live.get(row);
+    }
+
+    /// Next live row at or after `row`, or -1.
+    public int nextRow(int row) {
+        return live.nextSetBit(row);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /// A new request holding this row's values, or null for an empty row.
+    public CreateUpdateRequest request(int row) {
+        if (!contains(row)) {
+            return null;
+        }
+        return CreateUpdateRequest.builder()
+                .firstname(firstname(row))
+                .lastname(lastname(row))
+                .totalprice(totalprice(row))
+                .depositpaid(depositpaid(row))
+                .bookingdates(dates(row))
+                .additionalneeds(additionalneeds(row))
+                .build();
+    }
+
+    /// A new GET /booking/{id} response holding this row's values, or null for an empty row.
+    public BookingResponse response(int row) {
+        if (!contains(row)) {
+            return null;
+        }
+        BookingResponse response = new BookingResponse();
+        response.setFirstname(firstname(row));
+        response.setLastname(lastname(row));
+        response.setTotalPrice(totalprice(row));
+        response.setDepositPaid(depositpaid(row));
+        response.setBookingdates(dates(row));
+        response.setAdditionalNeeds(additionalneeds(row));
+        return response;
+    }
+
+    public String firstname(int row) {
+        return firstnames.decode(firstname[row]);
+    }
+
+    public String lastname(int row) {
+        return lastnames.decode(lastname[row]);
+    }
+
+    public Integer totalprice(int row) {
+        return price[row] == NULL ? null : price[row];
+    }
+
+    public Boolean depositpaid(int row) {
+        return deposit[row] == DEPOSIT_NULL ? null : deposit[row] == DEPOSIT_TRUE;
+    }
+
+    /// Check-in as an epoch day, or [#NULL].
+    public int checkinDay(int row) {
+        return checkin[row];
+    }
+
+    /// Check-out as an epoch day, or [#NULL].
+    public int checkoutDay(int row) {
+        return checkout[row];
+    }
+
+    public String additionalneeds(int row) {
+        return needs.decode(additionalneeds[row]);
+    }
+
+    private BookingDates dates(int row) {
+        return BookingDates.builder()
+                .checkin(date(checkin[row]))
+                .checkout(date(checkout[row]))
+                .build();
+    }
+
+    private void ensureCapacity(int row) {
+        if (row >= firstname.length) {
+            int capacity = Math.max(row + 1, firstname.length + (firstname.length >> 1));
+            firstname = Arrays.copyOf(firstname, capacity);
+            lastname = Arrays.copyOf(lastname, capacity);
+            price = Arrays.copyOf(price, capacity);
+            deposit = Arrays.copyOf(deposit, capacity);
+            checkin = Arrays.copyOf(checkin, capacity);
+            checkout = Arrays.copyOf(checkout, capacity);
+            additionalneeds = Arrays.copyOf(additionalneeds, capacity);
+        }
+    }
+
+    private static int day(String date) {
+        return date == null ? NULL : (int) LocalDate.parse(date).toEpochDay();
+    }
+
+    private static String date(int day) {
+        return day == NULL ? null : LocalDate.ofEpochDay(day).toString();
+    }
+}
@@ -0,0 +1,100 @@
+package store;
+
+import model.booking.BookingDates;
+import model.booking.CreateUpdateRequest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.ref.Reference;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/// Compares heap per booking and GC cost of holding `bench.rows` bookings as
+/// [CreateUpdateRequest] objects against a [ColumnarBookingTable].
+///
+/// Run the main method on the test classpath, e.g.
+/// `java -Xmx16g -Dbench.rows=20000000 -cp target/test-classes:<deps> store.ColumnarBookingTableBenchmark`.
+/// Object rows get their own name and date strings, as JSON deserialization produces
+/// them. Heap is read from the runtime after full GCs; "full GC ms" is how long those
+/// took with the rows live, which grows with the number of objects to trace.
+public class ColumnarBookingTableBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    public static void main(String[] args) {
+        int rows = Integer.getInteger("bench.rows", 20_000_000);
+        String layout = System.getProperty("bench.layout", "both");
+
+        System.out.printf("%-9s %12s %12s %12s %10s %12s %12s%n",
+                "layout", "rows", "heap MB", "bytes/row", "load s", "load GC ms", "full GC ms");
+        if (!layout.equals("columnar")) {
+            measure("objects", rows, () -> {
+                CreateUpdateRequest[] bookings = new CreateUpdateRequest[rows + 1];
+                SplittableRandom random = new SplittableRandom(42);
+                for (int id = 1; id <= rows; id++) {
+                    bookings[id] = booking(random);
+                }
+                return bookings;
+            });
+        }
+        if (!layout.equals("objects")) {
+            measure("columnar", rows, () -> {
+                ColumnarBookingTable table = new ColumnarBookingTable(rows + 1);
+                SplittableRandom random = new SplittableRandom(42);
+                for (int id = 1; id <= rows; id++) {
+                    table.set(id, booking(random));
+                }
+                return table;
+            });
+        }
+    }
+
+    private static void measure(String layout, int rows, Supplier<Object> load) {
+        long before = usedAfterGc();
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+        Object data = load.get();
+        double loadSeconds = (System.nanoTime() - start) / 1e9;
+        long loadGc = gcMillis() - gcBefore;
+
+        long fullGcStart = System.nanoTime();
+        long used = usedAfterGc() - before;
+        double fullGcMillis = (System.nanoTime() - fullGcStart) / 1e6;
+
+        System.out.printf("%-9s %,12d %,12.1f %12.1f %10.1f %,12d %,12.1f%n",
+                layout, rows, used / 1048576.0, (double) used / rows, loadSeconds, loadGc, fullGcMillis);
+        Reference.reachabilityFence(data);
+    }
+
+    private static CreateUpdateRequest booking(SplittableRandom random) {
+        LocalDate checkin = FIRST_DAY.plusDays(random.nextInt(3650));
+        return CreateUpdateRequest.builder()
+                .firstname(new String("First" + random.nextInt(20_000)))
+                .lastname(new String("Last" + random.nextInt(100_000)))
+                .totalprice(random.nextInt(1000))
+                .depositpaid(random.nextBoolean())
+                .bookingdates(BookingDates.builder()
+                        .checkin(checkin.toString())
+                        .checkout(checkin.plusDays(1 + random.nextInt(30)).toString())
+                        .build())
+                .additionalneeds(random.nextBoolean() ? "Breakfast" : null)
+                .build();
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(gc.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+}
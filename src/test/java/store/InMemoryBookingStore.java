@@ -0,0 +1,78 @@
+package store;
+
+import model.booking.CreateUpdateRequest;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+
+/// Plain map-backed store; every query scans all bookings.
+public class InMemoryBookingStore implements BookingStore {
+
+    private final Map<Integer, CreateUpdateRequest> bookings = new ConcurrentSkipListMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    @Override
+    public int create(CreateUpdateRequest booking) {
+        int id = ids.incrementAndGet();
+        bookings.put(id, booking);
+        return id;
+    }
+
+    @Override
+    public CreateUpdateRequest get(int id) {
+        return bookings.get(id);
+    }
+
+    @Override
+    public boolean update(int id, CreateUpdateRequest booking) {
+        return bookings.replace(id, booking) != null;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        return bookings.remove(id) != null;
+    }
+
+    @Override
+    public int[] find(BookingQuery query) {
+        return bookings.entrySet().stream()
+                .filter(entry -> matches(entry.getValue(), query))
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+    }
+
+    @Override
+    public int size() {
+        return bookings.size();
+    }
+
+    @Override
+    public void restore(int id, CreateUpdateRequest booking) {
+        bookings.put(id, booking);
+        ids.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public void forEach(ObjIntConsumer<CreateUpdateRequest> visitor) {
+        bookings.forEach((id, booking) -> visitor.accept(booking, id));
+    }
+
+    static boolean matches(CreateUpdateRequest booking, BookingQuery query) {
+        if (query.getFirstname() != null && !Objects.equals(query.getFirstname(), booking.getFirstname())) {
+            return false;
+        }
+        if (query.getLastname() != null && !Objects.equals(query.getLastname(), booking.getLastname())) {
+            return false;
+        }
+        if (query.getCheckin() != null
+                && LocalDate.parse(booking.getBookingdates().getCheckin()).isBefore(query.getCheckin())) {
+            return false;
+        }
+        return query.getCheckout() == null
+                || !LocalDate.parse(booking.getBookingdates().getCheckout()).isAfter(query.getCheckout());
+    }
+}
@@ -0,0 +1,272 @@
+package store;
+
+import model.booking.CreateUpdateRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ObjIntConsumer;
+
+/// Booking store that answers GET /booking filters from indexes instead of a scan:
+/// hash indexes on first and last name, and range indexes (by epoch day) on the
+/// check-in and check-out dates.
+///
+/// A query starts from whichever filter matches the fewest bookings and checks the
+/// other filters only on those candidates, so its cost follows the most selective
+/// filter rather than the store size. Bookings themselves live in a
+/// [ColumnarBookingTable]; [#get(int)] returns a fresh copy of the stored row.
+public class IndexedBookingStore implements BookingStore {
+
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ColumnarBookingTable bookings = new ColumnarBookingTable();
+    private int lastId;
+    private int inverted;
+
+    private final Map<String, IntList> byFirstname = new HashMap<>();
+    private final Map<String, IntList> byLastname = new HashMap<>();
+    private final NavigableMap<Integer, IntList> byCheckin = new TreeMap<>();
+    private final NavigableMap<Integer, IntList> byCheckout = new TreeMap<>();
+
+    @Override
+    public int create(CreateUpdateRequest booking) {
+        lock.writeLock().lock();
+        try {
+            int id = ++lastId;
+            insert(id, booking);
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CreateUpdateRequest get(int id) {
+        lock.readLock().lock();
+        try {
+            return bookings.request(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean update(int id, CreateUpdateRequest booking) {
+        lock.writeLock().lock();
+        try {
+            if (!bookings.contains(id)) {
+                return false;
+            }
+            remove(id);
+            insert(id, booking);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        lock.writeLock().lock();
+        try {
+            if (!bookings.contains(id)) {
+                return false;
+            }
+            remove(id);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] find(BookingQuery query) {
+        int from = query.getCheckin() == null ? NONE : (int) query.getCheckin().toEpochDay();
+        int to = query.getCheckout() == null ? NONE : (int) query.getCheckout().toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            if (query.isEmpty()) {
+                return allIds();
+            }
+
+            IntList firstnames = query.getFirstname() == null ? null : postings(byFirstname, query.getFirstname());
+            IntList lastnames = query.getLastname() == null ? null : postings(byLastname, query.getLastname());
+            long best = Math.min(sizeOf(firstnames), sizeOf(lastnames));
+
+            NavigableMap<Integer, IntList> checkins = checkinRange(from, to);
+            NavigableMap<Integer, IntList> checkouts = checkoutRange(from, to);
+            long checkinCount = count(checkins, best);
+            long checkoutCount = count(checkouts, Math.min(best, checkinCount));
+            best = Math.min(best, Math.min(checkinCount, checkoutCount));
+
+            IntList result = new IntList();
+            if (firstnames != null && firstnames.size() == best) {
+                filter(firstnames, query, from, to, result);
+                return result.toArray();
+            }
+            if (lastnames != null && lastnames.size() == best) {
+                filter(lastnames, query, from, to, result);
+                return result.toArray();
+            }
+            for (IntList ids : (checkinCount == best ? checkins : checkouts).values()) {
+                filter(ids, query, from, to, result);
+            }
+            int[] ids = result.toArray();
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bookings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void restore(int id, CreateUpdateRequest booking) {
+        lock.writeLock().lock();
+        try {
+            if (bookings.contains(id)) {
+                remove(id);
+            }
+            lastId = Math.max(lastId, id);
+            insert(id, booking);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(ObjIntConsumer<CreateUpdateRequest> visitor) {
+        lock.readLock().lock();
+        try {
+            for (int id = bookings.nextRow(1); id >= 0; id = bookings.nextRow(id + 1)) {
+                visitor.accept(bookings.request(id), id);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void filter(IntList candidates, BookingQuery query, int from, int to, IntList result) {
+        for (int i = 0; i < candidates.size(); i++) {
+            int id = candidates.get(i);
+            if (query.getFirstname() != null && !query.getFirstname().equals(bookings.firstname(id))) {
+                continue;
+            }
+            if (query.getLastname() != null && !query.getLastname().equals(bookings.lastname(id))) {
+                continue;
+            }
+            if (from != NONE && bookings.checkinDay(id) < from) {
+                continue;
+            }
+            if (to != NONE && bookings.checkoutDay(id) > to) {
+                continue;
+            }
+            result.add(id);
+        }
+    }
+
+    private int[] allIds() {
+        IntList ids = new IntList(bookings.size());
+        for (int id = bookings.nextRow(1); id >= 0; id = bookings.nextRow(id + 1)) {
+            ids.add(id);
+        }
+        return ids.toArray();
+    }
+
+    private void insert(int id, CreateUpdateRequest booking) {
+        bookings.set(id, booking);
+        int checkin = bookings.checkinDay(id);
+        int checkout = bookings.checkoutDay(id);
+        if (checkout < checkin) {
+            inverted++;
+        }
+        byFirstname.computeIfAbsent(bookings.firstname(id), key -> new IntList()).addSorted(id);
+        byLastname.computeIfAbsent(bookings.lastname(id), key -> new IntList()).addSorted(id);
+        byCheckin.computeIfAbsent(checkin, key -> new IntList()).addSorted(id);
+        byCheckout.computeIfAbsent(checkout, key -> new IntList()).addSorted(id);
+    }
+
+    private void remove(int id) {
+        int checkin = bookings.checkinDay(id);
+        int checkout = bookings.checkoutDay(id);
+        if (checkout < checkin) {
+            inverted--;
+        }
+        unindex(byFirstname, bookings.firstname(id), id);
+        unindex(byLastname, bookings.lastname(id), id);
+        unindex(byCheckin, checkin, id);
+        unindex(byCheckout, checkout, id);
+        bookings.remove(id);
+    }
+
+    private static <K> void unindex(Map<K, IntList> index, K key, int id) {
+        IntList ids = index.get(key);
+        if (ids != null && ids.removeSorted(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static IntList postings(Map<String, IntList> index, String key) {
+        IntList ids = index.get(key);
+        return ids == null ? new IntList(1) : ids;
+    }
+
+    private static long sizeOf(IntList ids) {
+        return ids == null ? Long.MAX_VALUE : ids.size();
+    }
+
+    /// Bookings whose check-in can match. While no booking checks out before it
+    /// checks in, a check-out bound also caps the check-in date, and bounds that
+    /// cross (check-in after check-out) match nothing.
+    private NavigableMap<Integer, IntList> checkinRange(int from, int to) {
+        if (from == NONE) {
+            return null;
+        }
+        if (to == NONE || inverted != 0) {
+            return byCheckin.tailMap(from, true);
+        }
+        return from > to ? Collections.emptyNavigableMap() : byCheckin.subMap(from, true, to, true);
+    }
+
+    private NavigableMap<Integer, IntList> checkoutRange(int from, int to) {
+        if (to == NONE) {
+            return null;
+        }
+        if (from == NONE || inverted != 0) {
+            return byCheckout.headMap(to, true);
+        }
+        return from > to ? Collections.emptyNavigableMap() : byCheckout.subMap(from, true, to, true);
+    }
+
+    /// Bookings in the range, counting no further than limit.
+    private static long count(NavigableMap<Integer, IntList> range, long limit) {
+        if (range == null) {
+            return Long.MAX_VALUE;
+        }
+        long count = 0;
+        for (IntList ids : range.values()) {
+            count += ids.size();
+            if (count >= limit) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return count;
+    }
+}
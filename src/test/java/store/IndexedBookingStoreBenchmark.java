@@ -0,0 +1,106 @@
+package store;
+
+import model.booking.BookingDates;
+import model.booking.CreateUpdateRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/// Seeds an [IndexedBookingStore] and reports GET /booking query latency for every
+/// combination of the four filters.
+///
+/// Run the main method on the test classpath, e.g.
+/// `java -Xmx4g -Dbench.bookings=10000000 -cp target/test-classes:<deps> store.IndexedBookingStoreBenchmark`.
+/// Bookings are columnar, so at 10M most of the heap goes to the indexes.
+public class IndexedBookingStoreBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int DAYS = 3650;
+
+    public static void main(String[] args) {
+        int bookings = Integer.getInteger("bench.bookings", 10_000_000);
+        int queries = Integer.getInteger("bench.queries", 2_000);
+        int firstnames = Integer.getInteger("bench.firstnames", 20_000);
+        int lastnames = Integer.getInteger("bench.lastnames", 100_000);
+        SplittableRandom random = new SplittableRandom(42);
+
+        String[] first = names("First", firstnames);
+        String[] last = names("Last", lastnames);
+        String[] dates = new String[DAYS + 31];
+        for (int day = 0; day < dates.length; day++) {
+            dates[day] = FIRST_DAY.plusDays(day).toString();
+        }
+
+        IndexedBookingStore store = new IndexedBookingStore();
+        long seedStart = System.nanoTime();
+        for (int i = 0; i < bookings; i++) {
+            int checkin = random.nextInt(DAYS);
+            store.create(CreateUpdateRequest.builder()
+                    .firstname(first[random.nextInt(first.length)])
+                    .lastname(last[random.nextInt(last.length)])
+                    .totalprice(random.nextInt(1000))
+                    .depositpaid(random.nextBoolean())
+                    .bookingdates(BookingDates.builder()
+                            .checkin(dates[checkin])
+                            .checkout(dates[checkin + 1 + random.nextInt(30)])
+                            .build())
+                    .additionalneeds("Breakfast")
+                    .build());
+        }
+        System.out.printf("Seeded %,d bookings in %.1f s%n", bookings, (System.nanoTime() - seedStart) / 1e9);
+        System.out.printf("%-36s %8s %10s %10s %10s %12s%n", "filters", "queries", "p50 us", "p99 us", "max us", "avg hits");
+
+        for (int mask = 0; mask < 16; mask++) {
+            int runs = mask == 0 ? Math.min(queries, 20) : queries;
+            long[] nanos = new long[runs];
+            long hits = 0;
+            for (int q = 0; q < runs; q++) {
+                CreateUpdateRequest sample = store.get(1 + random.nextInt(bookings));
+                LocalDate checkin = LocalDate.parse(sample.getBookingdates().getCheckin());
+                LocalDate checkout = LocalDate.parse(sample.getBookingdates().getCheckout());
+                BookingQuery query = BookingQuery.builder()
+                        .firstname((mask & 1) != 0 ? sample.getFirstname() : null)
+                        .lastname((mask & 2) != 0 ? sample.getLastname() : null)
+                        .checkin((mask & 4) != 0 ? checkin.minusDays(3) : null)
+                        .checkout((mask & 8) != 0 ? checkout.plusDays(3) : null)
+                        .build();
+
+                long start = System.nanoTime();
+                hits += store.find(query).length;
+                nanos[q] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%-36s %8d %10.1f %10.1f %10.1f %12.1f%n", describe(mask), runs,
+                    nanos[runs / 2] / 1e3, nanos[(int) (runs * 0.99)] / 1e3, nanos[runs - 1] / 1e3,
+                    (double) hits / runs);
+        }
+    }
+
+    private static String[] names(String prefix, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = prefix + i;
+        }
+        return names;
+    }
+
+    private static String describe(int mask) {
+        List<String> filters = new ArrayList<>();
+        if ((mask & 1) != 0) {
+            filters.add("firstname");
+        }
+        if ((mask & 2) != 0) {
+            filters.add("lastname");
+        }
+        if ((mask & 4) != 0) {
+            filters.add("checkin");
+        }
+        if ((mask & 8) != 0) {
+            filters.add("checkout");
+        }
+        return filters.isEmpty() ? "(none)" : String.join("+", filters);
+    }
+}
@@ -0,0 +1,66 @@
+package store;
+
+import java.util.Arrays;
+
+/// Growable int array; kept sorted by the callers that use the *Sorted methods.
+public final class IntList {
+
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(4);
+    }
+
+    public IntList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+
+    public void addSorted(int value) {
+        if (size == 0 || values[size - 1] < value) {
+            add(value);
+            return;
+        }
+        int at = Arrays.binarySearch(values, 0, size, value);
+        if (at >= 0) {
+            return;
+        }
+        at = -at - 1;
+        add(0);
+        System.arraycopy(values, at, values, at + 1, size - 1 - at);
+        values[at] = value;
+    }
+
+    public boolean removeSorted(int value) {
+        int at = Arrays.binarySearch(values, 0, size, value);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(values, at + 1, values, at, size - at - 1);
+        size--;
+        return true;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
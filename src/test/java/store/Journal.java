@@ -0,0 +1,315 @@
+package store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/// Append-only log of records in memory-mapped, preallocated segment files
+/// (`journal-000001.log`, ...). A record is `[int length][int crc32][payload]`;
+/// a zero length marks the end of written data.
+///
+/// Appends only copy into the mapping. A single committer thread forces dirty
+/// pages to disk for everything appended so far, so one force covers a whole
+/// group of appends (group commit). In [CommitMode#SYNC] an append returns once
+/// its group is on disk; in [CommitMode#ASYNC] it returns immediately and the
+/// committer flushes every commit interval.
+public class Journal implements Closeable {
+
+    public enum CommitMode { SYNC, ASYNC }
+
+    private static final int HEADER = 8;
+    private static final long COMMIT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final Path dir;
+    private final int segmentSize;
+    private final CommitMode mode;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final Condition appended = commitLock.newCondition();
+    private final Condition committed = commitLock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private final Thread committer;
+
+    private int segment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private volatile long appendedSeq;
+    private volatile long committedSeq;
+    private volatile boolean closed;
+    /// Why the committer stopped; appends and waits fail with it from then on.
+    private volatile Throwable commitFailure;
+
+    private Journal(Path dir, int segmentSize, CommitMode mode) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.mode = mode;
+        this.committer = new Thread(this::commitLoop, "journal-committer");
+        this.committer.setDaemon(true);
+    }
+
+    /// Replays every record from `fromSegment` on, truncates a torn tail, and
+    /// positions the writer after the last valid record.
+    public static Journal open(Path dir, int segmentSize, CommitMode mode, int fromSegment,
+                               Consumer<ByteBuffer> replay) throws IOException {
+        Files.createDirectories(dir);
+        Journal journal = new Journal(dir, segmentSize, mode);
+
+        List<Integer> segments = segments(dir);
+        for (int index : segments) {
+            if (index < fromSegment) {
+                continue;
+            }
+            journal.map(index);
+            journal.replayCurrent(replay);
+        }
+        if (journal.buffer == null) {
+            journal.map(Math.max(fromSegment, 1));
+        }
+        journal.committer.start();
+        return journal;
+    }
+
+    /// Appends one record; returns its sequence number once the commit mode allows.
+    public long append(ByteBuffer payload) {
+        long seq = write(payload);
+        await(seq);
+        return seq;
+    }
+
+    /// Copies one record into the journal without waiting for the disk. Callers that
+    /// must order records under their own lock write there and [#await(long)] outside
+    /// it, so many writers can share one force.
+    public long write(ByteBuffer payload) {
+        int length = payload.remaining();
+        if (length + HEADER + 4 > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds segment size");
+        }
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal closed");
+            }
+            checkCommitter();
+            if (buffer.remaining() < length + HEADER + 4) {
+                roll();
+            }
+            crc.reset();
+            crc.update(payload.duplicate());
+            int start = buffer.position();
+            buffer.position(start + 4);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(payload);
+            buffer.putInt(start, length);
+            return ++appendedSeq;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /// In SYNC mode, blocks until the record with this sequence number is on disk,
+    /// and throws if the committer failed before getting it there.
+    public void await(long seq) {
+        commitLock.lock();
+        try {
+            appended.signal();
+            if (mode == CommitMode.SYNC) {
+                while (committedSeq < seq && !closed && commitFailure == null) {
+                    committed.awaitUninterruptibly();
+                }
+                if (committedSeq < seq && !closed) {
+                    checkCommitter();
+                }
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private void checkCommitter() {
+        Throwable failure = commitFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Journal committer failed; records after "
+                    + committedSeq + " may not be on disk", failure);
+        }
+    }
+
+    /// Starts a new segment and returns its index; later appends go there.
+    public int roll() {
+        appendLock.lock();
+        try {
+            buffer.force();
+            map(segment + 1);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public void deleteSegmentsBefore(int index) throws IOException {
+        for (int existing : segments(dir)) {
+            if (existing < index) {
+                Files.deleteIfExists(file(dir, existing));
+            }
+        }
+    }
+
+    public int segment() {
+        return segment;
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.force();
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+        commitLock.lock();
+        try {
+            committedSeq = appendedSeq;
+            appended.signalAll();
+            committed.signalAll();
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private void commitLoop() {
+        while (!closed) {
+            long target;
+            commitLock.lock();
+            try {
+                if (appendedSeq == committedSeq) {
+                    appended.awaitNanos(COMMIT_INTERVAL_NANOS);
+                }
+                target = appendedSeq;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                commitLock.unlock();
+            }
+            if (target == committedSeq) {
+                continue;
+            }
+
+            // A roll forces the segment it leaves, so forcing the current one is enough.
+            // The force runs outside the append lock: appends keep landing meanwhile.
+            MappedByteBuffer current;
+            appendLock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                current = buffer;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                current.force();
+            } catch (RuntimeException | Error e) {
+                commitLock.lock();
+                try {
+                    commitFailure = e;
+                    committed.signalAll();
+                } finally {
+                    commitLock.unlock();
+                }
+                return;
+            }
+
+            commitLock.lock();
+            try {
+                committedSeq = Math.max(committedSeq, target);
+                committed.signalAll();
+            } finally {
+                commitLock.unlock();
+            }
+        }
+    }
+
+    private void replayCurrent(Consumer<ByteBuffer> replay) {
+        CRC32 check = new CRC32();
+        while (buffer.remaining() >= HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int expected = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            check.reset();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != expected) {
+                buffer.position(start);
+                break;
+            }
+            replay.accept(payload);
+            buffer.position(buffer.position() + length);
+        }
+        // Clear whatever a torn write left behind so it cannot be read back later.
+        int end = buffer.position();
+        if (buffer.remaining() >= HEADER && buffer.getLong(end) != 0) {
+            while (buffer.hasRemaining()) {
+                buffer.put((byte) 0);
+            }
+            buffer.position(end);
+        }
+    }
+
+    private void map(int index) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        segment = index;
+        channel = FileChannel.open(file(dir, index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    /// The oldest segment still in `dir`, or [Integer#MAX_VALUE] if there is none.
+    static int firstSegment(Path dir) throws IOException {
+        List<Integer> segments = segments(dir);
+        return segments.isEmpty() ? Integer.MAX_VALUE : segments.get(0);
+    }
+
+    private static Path file(Path dir, int index) {
+        return dir.resolve(String.format("journal-%06d.log", index));
+    }
+
+    private static List<Integer> segments(Path dir) throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.matches("journal-\\d{6}\\.log"))
+                    .map(name -> Integer.parseInt(name.substring(8, 14)))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,117 @@
+package store;
+
+import model.booking.BookingDates;
+import model.booking.CreateUpdateRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/// Reports [JournaledBookingStore] write throughput in both commit modes and
+/// recovery time after `bench.ops` operations (default 1M and 10M).
+///
+/// Run the main method on the test classpath, e.g.
+/// `java -Xmx4g -Dbench.ops=1000000,10000000 -cp target/test-classes:<deps> store.JournalBenchmark`.
+/// The mix is 60% create, 25% update, 15% delete; `bench.dir` sets where the files go.
+public class JournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = System.getProperty("bench.ops", "1000000,10000000").split(",");
+        int writers = Integer.getInteger("bench.writers", 8);
+        long snapshotEvery = Long.getLong("bench.snapshot.every", 1_000_000);
+        Path root = Path.of(System.getProperty("bench.dir", System.getProperty("java.io.tmpdir")))
+                .resolve("journal-bench");
+
+        System.out.printf("%-6s %10s %8s %12s %12s %10s %12s%n",
+                "mode", "ops", "writers", "write s", "ops/s", "live", "recover ms");
+        for (String size : sizes) {
+            long ops = Long.parseLong(size.trim());
+            for (Journal.CommitMode mode : Journal.CommitMode.values()) {
+                for (int threads : new int[]{1, writers}) {
+                    // One SYNC writer waits for a force per op; a shorter run is enough to measure it.
+                    long runOps = mode == Journal.CommitMode.SYNC && threads == 1 ? Math.min(ops, 20_000) : ops;
+                    run(root, mode, threads, runOps, snapshotEvery);
+                }
+            }
+        }
+        delete(root);
+    }
+
+    private static void run(Path root, Journal.CommitMode mode, int threads, long ops, long snapshotEvery)
+            throws Exception {
+        delete(root);
+        JournaledBookingStore.Options options = JournaledBookingStore.Options.builder()
+                .commitMode(mode)
+                .snapshotEvery(snapshotEvery)
+                .build();
+
+        JournaledBookingStore store = JournaledBookingStore.open(root, new IndexedBookingStore(), options);
+        AtomicLong remaining = new AtomicLong(ops);
+        CountDownLatch done = new CountDownLatch(threads);
+        long writeStart = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            Thread writer = new Thread(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    int roll = random.nextInt(100);
+                    int size = store.size();
+                    if (roll < 60 || size == 0) {
+                        store.create(booking(random));
+                    } else if (roll < 85) {
+                        store.update(1 + random.nextInt(size * 2), booking(random));
+                    } else {
+                        store.delete(1 + random.nextInt(size * 2));
+                    }
+                }
+                done.countDown();
+            });
+            writer.start();
+        }
+        done.await();
+        double writeSeconds = (System.nanoTime() - writeStart) / 1e9;
+        int live = store.size();
+        store.close();
+
+        long recoverStart = System.nanoTime();
+        IndexedBookingStore recovered = new IndexedBookingStore();
+        JournaledBookingStore.open(root, recovered, options).close();
+        double recoverMillis = (System.nanoTime() - recoverStart) / 1e6;
+        if (recovered.size() != live) {
+            throw new IllegalStateException("Recovered " + recovered.size() + " bookings, expected " + live);
+        }
+
+        System.out.printf("%-6s %,10d %8d %12.2f %,12.0f %,10d %12.1f%n",
+                mode, ops, threads, writeSeconds, ops / writeSeconds, live, recoverMillis);
+    }
+
+    private static CreateUpdateRequest booking(SplittableRandom random) {
+        int checkin = 1 + random.nextInt(28);
+        return CreateUpdateRequest.builder()
+                .firstname("First" + random.nextInt(20_000))
+                .lastname("Last" + random.nextInt(100_000))
+                .totalprice(random.nextInt(1000))
+                .depositpaid(random.nextBoolean())
+                .bookingdates(BookingDates.builder()
+                        .checkin(String.format("2024-05-%02d", checkin))
+                        .checkout(String.format("2024-06-%02d", checkin))
+                        .build())
+                .additionalneeds("Breakfast")
+                .build();
+    }
+
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
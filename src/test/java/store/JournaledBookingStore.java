@@ -0,0 +1,374 @@
+package store;
+
+import lombok.Builder;
+import lombok.Data;
+import model.booking.CreateUpdateRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/// Makes any [BookingStore] survive restarts: every create, update (PUT and the
+/// merged result of PATCH) and delete is written to a memory-mapped [Journal]
+/// before the call returns. The record is written before the delegate changes, so
+/// a failed write never leaves memory ahead of the journal.
+///
+/// Every `snapshotEvery` changes the store writes a compacted snapshot of the live
+/// bookings and drops the journal segments it covers. Opening a directory loads the
+/// newest snapshot and replays only the journal written after it, so restart time
+/// depends on the live data plus at most one snapshot interval, not on the history.
+public class JournaledBookingStore implements BookingStore, Closeable {
+
+    @Data
+    @Builder
+    public static class Options {
+        @Builder.Default
+        private int segmentSize = 64 << 20;
+        @Builder.Default
+        private Journal.CommitMode commitMode = Journal.CommitMode.SYNC;
+        @Builder.Default
+        private long snapshotEvery = 1_000_000;
+    }
+
+    private static final byte CREATE = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+    private static final int SNAPSHOT_MAGIC = 0x424B534E;
+    /// Snapshots are read through read-only mappings of up to this size, so they may exceed 2 GB.
+    private static final long SNAPSHOT_WINDOW = 1L << 30;
+
+    private final Path dir;
+    private final BookingStore delegate;
+    private final Options options;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ExecutorService snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Journal journal;
+    private ByteBuffer scratch = ByteBuffer.allocate(512);
+    private int lastId;
+    private long sinceSnapshot;
+    private boolean snapshotPending;
+    private boolean closed;
+
+    private JournaledBookingStore(Path dir, BookingStore delegate, Options options) {
+        this.dir = dir;
+        this.delegate = delegate;
+        this.options = options;
+    }
+
+    /// Recovers `delegate` from the snapshot and journal in `dir`, then journals new changes there.
+    public static JournaledBookingStore open(Path dir, BookingStore delegate, Options options) throws IOException {
+        Files.createDirectories(dir);
+        JournaledBookingStore store = new JournaledBookingStore(dir, delegate, options);
+        int fromSegment = store.loadSnapshot();
+        store.journal = Journal.open(dir, options.getSegmentSize(), options.getCommitMode(), fromSegment,
+                store::replay);
+        return store;
+    }
+
+    @Override
+    public int create(CreateUpdateRequest booking) {
+        long seq;
+        int id;
+        writeLock.lock();
+        try {
+            id = ++lastId;
+            seq = journal.write(record(CREATE, id, booking));
+            delegate.restore(id, booking);
+            changed();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(seq);
+        return id;
+    }
+
+    @Override
+    public CreateUpdateRequest get(int id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public boolean update(int id, CreateUpdateRequest booking) {
+        long seq;
+        writeLock.lock();
+        try {
+            if (delegate.get(id) == null) {
+                return false;
+            }
+            seq = journal.write(record(UPDATE, id, booking));
+            delegate.update(id, booking);
+            changed();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(seq);
+        return true;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        long seq;
+        writeLock.lock();
+        try {
+            if (delegate.get(id) == null) {
+                return false;
+            }
+            seq = journal.write(record(DELETE, id, null));
+            delegate.delete(id);
+            changed();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(seq);
+        return true;
+    }
+
+    @Override
+    public int[] find(BookingQuery query) {
+        return delegate.find(query);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void restore(int id, CreateUpdateRequest booking) {
+        long seq;
+        writeLock.lock();
+        try {
+            lastId = Math.max(lastId, id);
+            seq = journal.write(record(UPDATE, id, booking));
+            delegate.restore(id, booking);
+            changed();
+        } finally {
+            writeLock.unlock();
+        }
+        journal.await(seq);
+    }
+
+    @Override
+    public void forEach(ObjIntConsumer<CreateUpdateRequest> visitor) {
+        delegate.forEach(visitor);
+    }
+
+    /// Writes a compacted snapshot now. Changes wait while it is written.
+    public void snapshot() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            snapshotPending = false;
+            sinceSnapshot = 0;
+            int next = journal.roll();
+            writeSnapshot(next);
+            journal.deleteSegmentsBefore(next);
+            deleteSnapshotsBefore(next);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        writeLock.lock();
+        try {
+            closed = true;
+            journal.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void changed() {
+        if (++sinceSnapshot >= options.getSnapshotEvery() && !snapshotPending) {
+            snapshotPending = true;
+            snapshotter.execute(() -> {
+                try {
+                    snapshot();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private ByteBuffer record(byte op, int id, CreateUpdateRequest booking) {
+        scratch.clear();
+        scratch.put(op).putInt(id);
+        if (booking != null) {
+            scratch = BookingCodec.write(scratch, booking);
+        }
+        scratch.flip();
+        return scratch;
+    }
+
+    private void replay(ByteBuffer record) {
+        byte op = record.get();
+        int id = record.getInt();
+        lastId = Math.max(lastId, id);
+        if (op == DELETE) {
+            delegate.delete(id);
+        } else {
+            delegate.restore(id, BookingCodec.read(record));
+        }
+    }
+
+    /// Snapshot layout: magic, first journal segment not covered, last issued id,
+    /// booking count, then `[int id][booking]` records and a CRC32 of everything before it.
+    private void writeSnapshot(int segment) throws IOException {
+        Path tmp = dir.resolve("snapshot.tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer[] buffer = {ByteBuffer.allocate(1 << 20)};
+            buffer[0].putInt(SNAPSHOT_MAGIC).putInt(segment).putInt(lastId).putInt(delegate.size());
+
+            delegate.forEach((booking, id) -> {
+                if (buffer[0].position() > (1 << 20) - 4096) {
+                    flush(channel, buffer[0], crc);
+                }
+                buffer[0] = BookingCodec.write(BookingCodec.ensure(buffer[0], 4).putInt(id), booking);
+            });
+            flush(channel, buffer[0], crc);
+            channel.write(ByteBuffer.allocate(4).putInt(0, (int) crc.getValue()));
+            channel.force(true);
+        }
+        Files.move(tmp, snapshotFile(segment), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    /// Loads the newest intact snapshot; returns the journal segment to replay from.
+    /// An older snapshot stands in for a corrupt newer one only while the journal it
+    /// needs is still there: [#snapshot()] deletes the segments a snapshot covers, so
+    /// otherwise recovering would silently drop every change up to the corrupt one.
+    private int loadSnapshot() throws IOException {
+        List<Path> snapshots = snapshots();
+        Path corrupt = null;
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path file = snapshots.get(i);
+            int segment = readSnapshot(file);
+            if (segment < 0) {
+                corrupt = corrupt == null ? file : corrupt;
+                continue;
+            }
+            checkJournalCovers(corrupt, segment);
+            return segment;
+        }
+        checkJournalCovers(corrupt, 1);
+        return 1;
+    }
+
+    private void checkJournalCovers(Path corrupt, int segment) throws IOException {
+        if (corrupt != null && Journal.firstSegment(dir) > segment) {
+            throw new IOException("Snapshot " + corrupt + " is corrupt and the journal segments before it"
+                    + " are gone; refusing to recover without its bookings");
+        }
+    }
+
+    /// Restores the bookings of one snapshot; returns its journal segment, or -1 if
+    /// the file is damaged, in which case nothing was restored.
+    private int readSnapshot(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 20) {
+                return -1;
+            }
+            long end = size - 4;
+            CRC32 crc = new CRC32();
+            for (long position = 0; position < end; position += SNAPSHOT_WINDOW) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(SNAPSHOT_WINDOW, end - position)));
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(4);
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, end + trailer.position()) < 0) {
+                    return -1;
+                }
+            }
+            if (trailer.getInt(0) != (int) crc.getValue()) {
+                return -1;
+            }
+
+            long base = 0;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(SNAPSHOT_WINDOW, end));
+            if (buffer.getInt() != SNAPSHOT_MAGIC) {
+                return -1;
+            }
+            int segment = buffer.getInt();
+            lastId = buffer.getInt();
+            int count = buffer.getInt();
+            for (int n = 0; n < count; n++) {
+                // Slide the window while any record still fits well inside it.
+                if (buffer.remaining() < SNAPSHOT_WINDOW / 2 && base + buffer.limit() < end) {
+                    base += buffer.position();
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(SNAPSHOT_WINDOW, end - base));
+                }
+                int id = buffer.getInt();
+                delegate.restore(id, BookingCodec.read(buffer));
+            }
+            return segment;
+        }
+    }
+
+    private void deleteSnapshotsBefore(int segment) throws IOException {
+        for (Path file : snapshots()) {
+            if (segmentOf(file) < segment) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(path -> path.getFileName().toString().matches("snapshot-\\d{6}\\.bin"))
+                    .sorted()
+                    .forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    private Path snapshotFile(int segment) {
+        return dir.resolve(String.format("snapshot-%06d.bin", segment));
+    }
+
+    private static int segmentOf(Path snapshot) {
+        return Integer.parseInt(snapshot.getFileName().toString().substring(9, 15));
+    }
+}
@@ -0,0 +1,124 @@
+package store;
+
+import java.util.function.ObjIntConsumer;
+
+/// Immutable map from non-negative int keys to values: a 32-way radix trie over
+/// the key bits. [#put(int, Object)] and [#remove(int)] copy only the nodes on the
+/// key's path (at most 7) and share the rest, so keeping an old version costs nothing
+/// and taking one is a single reference read.
+final class PersistentIntMap<V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0, 0);
+
+    private final Object[] root;
+    private final int shift;
+    private final int size;
+
+    private PersistentIntMap(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        if (key < 0 || root == null || !fits(key, shift)) {
+            return null;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(key >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (V) node[key & MASK];
+    }
+
+    PersistentIntMap<V> put(int key, V value) {
+        if (key < 0 || value == null) {
+            throw new IllegalArgumentException("key " + key + ", value " + value);
+        }
+        Object[] newRoot = root == null ? new Object[WIDTH] : root;
+        int newShift = shift;
+        while (!fits(key, newShift)) {
+            Object[] grown = new Object[WIDTH];
+            grown[0] = newRoot;
+            newRoot = grown;
+            newShift += BITS;
+        }
+        boolean added = get(key) == null;
+        return new PersistentIntMap<>(put(newRoot, newShift, key, value), newShift, added ? size + 1 : size);
+    }
+
+    PersistentIntMap<V> remove(int key) {
+        if (get(key) == null) {
+            return this;
+        }
+        return new PersistentIntMap<>(remove(root, shift, key), shift, size - 1);
+    }
+
+    /// Visits entries in ascending key order.
+    void forEach(ObjIntConsumer<V> visitor) {
+        if (root != null) {
+            visit(root, shift, 0, visitor);
+        }
+    }
+
+    private static Object[] put(Object[] node, int level, int key, Object value) {
+        Object[] copy = node.clone();
+        int slot = (key >>> level) & MASK;
+        if (level == 0) {
+            copy[slot] = value;
+        } else {
+            Object[] child = (Object[]) node[slot];
+            copy[slot] = put(child == null ? new Object[WIDTH] : child, level - BITS, key, value);
+        }
+        return copy;
+    }
+
+    /// Copies the path without the key; returns null for a node left empty.
+    private static Object[] remove(Object[] node, int level, int key) {
+        Object[] copy = node.clone();
+        int slot = (key >>> level) & MASK;
+        copy[slot] = level == 0 ? null : remove((Object[]) node[slot], level - BITS, key);
+        for (Object entry : copy) {
+            if (entry != null) {
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void visit(Object[] node, int level, int prefix, ObjIntConsumer visitor) {
+        for (int slot = 0; slot < WIDTH; slot++) {
+            Object entry = node[slot];
+            if (entry == null) {
+                continue;
+            }
+            int key = prefix | (slot << level);
+            if (level == 0) {
+                visitor.accept(entry, key);
+            } else {
+                visit((Object[]) entry, level - BITS, key, visitor);
+            }
+        }
+    }
+
+    private static boolean fits(int key, int shift) {
+        return shift + BITS >= 31 || (key >>> (shift + BITS)) == 0;
+    }
+}
@@ -0,0 +1,46 @@
+package store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/// Maps each distinct string to a small int code and back. Codes are never
+/// reused, so a column of codes stays valid for the dictionary's lifetime.
+final class StringDictionary {
+
+    static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[256];
+    private int size;
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /// The code of an existing value, or [#NULL] if it was never encoded.
+    int find(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? NULL : code;
+    }
+
+    String decode(int code) {
+        return code == NULL ? null : values[code];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,306 @@
+package store;
+
+import model.booking.CreateUpdateRequest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
+
+/// Booking store whose whole state is one immutable [PersistentIntMap], so
+/// [#snapshot()] and [#fork()] are O(1), [#rollback(Snapshot)] costs the writes made
+/// since the snapshot, and writes copy only the path to the changed id. Lookups by id
+/// never lock; writes are serialized per store.
+///
+/// A fork starts from the parent's state at fork time and diverges from there, so a
+/// test can change or delete preloaded bookings without anyone else seeing it and
+/// throw the fork away afterwards. Ids come from one sequence shared by the parent and
+/// all its forks. Bookings the parent gains after the fork (shared fixtures made
+/// outside any test) stay visible in the fork until the fork itself changes them.
+///
+/// The root store also keeps its current bookings in an [IndexedBookingStore], so
+/// [#find(BookingQuery)] on it uses the name and date indexes. A fork answers from its
+/// parent's answer and re-checks only the ids whose booking may differ from the
+/// parent's: those the fork wrote, and those the parent changed after the fork. Every
+/// store logs the ids it writes for this, so a GET /booking on a fork costs an
+/// indexed query plus the fork's own changes, not a scan of the preloaded data.
+/// Queries take a store's lock only to copy the ids it changed.
+public class VersionedBookingStore implements BookingStore {
+
+    /// Marks, in a fork, a parent booking the fork has deleted.
+    private static final CreateUpdateRequest DELETED = CreateUpdateRequest.builder().build();
+
+    /// A frozen version of a store's state.
+    public static final class Snapshot {
+        private final PersistentIntMap<CreateUpdateRequest> bookings;
+        private final int live;
+        private final long version;
+
+        private Snapshot(PersistentIntMap<CreateUpdateRequest> bookings, int live, long version) {
+            this.bookings = bookings;
+            this.live = live;
+            this.version = version;
+        }
+    }
+
+    private final AtomicInteger ids;
+    private final AtomicLong versions;
+    private final VersionedBookingStore parent;
+    private final int forkedAt;
+    private final long forkedVersion;
+    private final IndexedBookingStore index;
+    private final ChangeLog changes = new ChangeLog();
+    private volatile Snapshot state;
+
+    public VersionedBookingStore() {
+        this(new AtomicInteger(), new AtomicLong(), null, 0, new Snapshot(PersistentIntMap.empty(), 0, 0));
+    }
+
+    private VersionedBookingStore(AtomicInteger ids, AtomicLong versions, VersionedBookingStore parent,
+                                  int forkedAt, Snapshot state) {
+        this.ids = ids;
+        this.versions = versions;
+        this.parent = parent;
+        this.forkedAt = forkedAt;
+        this.forkedVersion = versions.get();
+        this.index = parent == null ? new IndexedBookingStore() : null;
+        this.state = state;
+    }
+
+    public Snapshot snapshot() {
+        return state;
+    }
+
+    /// Puts the state back to a snapshot taken from this store.
+    public synchronized void rollback(Snapshot snapshot) {
+        int[] reverted = changes.since(snapshot.version).toArray();
+        long version = versions.incrementAndGet();
+        for (int id : reverted) {
+            changes.add(version, id);
+        }
+        state = snapshot;
+        if (index != null) {
+            for (int id : reverted) {
+                CreateUpdateRequest booking = snapshot.bookings.get(id);
+                if (booking == null) {
+                    index.delete(id);
+                } else {
+                    index.restore(id, booking);
+                }
+            }
+        }
+    }
+
+    /// A new store that starts with this store's current bookings.
+    public synchronized VersionedBookingStore fork() {
+        return new VersionedBookingStore(ids, versions, this, ids.get(), state);
+    }
+
+    @Override
+    public synchronized int create(CreateUpdateRequest booking) {
+        int id = ids.incrementAndGet();
+        put(id, booking);
+        return id;
+    }
+
+    @Override
+    public CreateUpdateRequest get(int id) {
+        CreateUpdateRequest booking = state.bookings.get(id);
+        if (booking == null) {
+            return inherited(id) ? parent.get(id) : null;
+        }
+        return booking == DELETED ? null : booking;
+    }
+
+    @Override
+    public synchronized boolean update(int id, CreateUpdateRequest booking) {
+        if (get(id) == null) {
+            return false;
+        }
+        put(id, booking);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(int id) {
+        if (get(id) == null) {
+            return false;
+        }
+        Snapshot current = state;
+        boolean own = current.bookings.get(id) != null;
+        PersistentIntMap<CreateUpdateRequest> bookings = parent != null && id > forkedAt
+                ? current.bookings.put(id, DELETED)
+                : current.bookings.remove(id);
+        long version = versions.incrementAndGet();
+        changes.add(version, id);
+        state = new Snapshot(bookings, own ? current.live - 1 : current.live, version);
+        if (index != null) {
+            index.delete(id);
+        }
+        return true;
+    }
+
+    @Override
+    public int[] find(BookingQuery query) {
+        if (parent == null) {
+            return index.find(query);
+        }
+        // The parent's answer first: anything it changes after this is in differences().
+        int[] inherited = parent.find(query);
+        int[] differences = differences();
+        IntList result = new IntList(inherited.length);
+        int next = 0;
+        for (int id : inherited) {
+            while (next < differences.length && differences[next] < id) {
+                addIfMatches(differences[next++], query, result);
+            }
+            if (next < differences.length && differences[next] == id) {
+                addIfMatches(differences[next++], query, result);
+            } else {
+                result.add(id);
+            }
+        }
+        while (next < differences.length) {
+            addIfMatches(differences[next++], query, result);
+        }
+        return result.toArray();
+    }
+
+    @Override
+    public int size() {
+        if (parent == null) {
+            return state.live;
+        }
+        int size = parent.size();
+        for (int id : differences()) {
+            size += (get(id) != null ? 1 : 0) - (parent.get(id) != null ? 1 : 0);
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void restore(int id, CreateUpdateRequest booking) {
+        ids.accumulateAndGet(id, Math::max);
+        put(id, booking);
+    }
+
+    @Override
+    public void forEach(ObjIntConsumer<CreateUpdateRequest> visitor) {
+        Snapshot current = state;
+        if (parent == null) {
+            current.bookings.forEach(visitor);
+            return;
+        }
+        IntList inheritedIds = new IntList();
+        parent.forEach((booking, id) -> {
+            if (id > forkedAt && current.bookings.get(id) == null) {
+                inheritedIds.add(id);
+            }
+        });
+        int[] next = {0};
+        current.bookings.forEach((booking, id) -> {
+            while (next[0] < inheritedIds.size() && inheritedIds.get(next[0]) < id) {
+                visitInherited(inheritedIds.get(next[0]++), visitor);
+            }
+            if (booking != DELETED) {
+                visitor.accept(booking, id);
+            }
+        });
+        while (next[0] < inheritedIds.size()) {
+            visitInherited(inheritedIds.get(next[0]++), visitor);
+        }
+    }
+
+    private void visitInherited(int id, ObjIntConsumer<CreateUpdateRequest> visitor) {
+        CreateUpdateRequest booking = parent.get(id);
+        if (booking != null) {
+            visitor.accept(booking, id);
+        }
+    }
+
+    private void addIfMatches(int id, BookingQuery query, IntList result) {
+        CreateUpdateRequest booking = get(id);
+        if (booking != null && InMemoryBookingStore.matches(booking, query)) {
+            result.add(id);
+        }
+    }
+
+    /// Sorted ids whose booking in this fork may differ from the parent's current one.
+    private int[] differences() {
+        IntList changed = changes.since(forkedVersion);
+        IntList inherited = parent.changedSince(forkedVersion);
+        for (int i = 0; i < inherited.size(); i++) {
+            if (inherited.get(i) <= forkedAt) {
+                changed.add(inherited.get(i));
+            }
+        }
+        return Arrays.stream(changed.toArray()).sorted().distinct().toArray();
+    }
+
+    /// Ids whose booking, as this store shows it, may have changed after `version`.
+    private IntList changedSince(long version) {
+        IntList changed = changes.since(version);
+        if (parent != null) {
+            IntList inherited = parent.changedSince(Math.max(version, forkedVersion));
+            for (int i = 0; i < inherited.size(); i++) {
+                if (inherited.get(i) > forkedAt) {
+                    changed.add(inherited.get(i));
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean inherited(int id) {
+        return parent != null && id > forkedAt;
+    }
+
+    /// Logs the write before the index shows it, so a fork that read the index also
+    /// sees the id among the changes.
+    private void put(int id, CreateUpdateRequest booking) {
+        Snapshot current = state;
+        CreateUpdateRequest previous = current.bookings.get(id);
+        boolean added = previous == null || previous == DELETED;
+        long version = versions.incrementAndGet();
+        changes.add(version, id);
+        state = new Snapshot(current.bookings.put(id, booking), added ? current.live + 1 : current.live, version);
+        if (index != null) {
+            index.restore(id, booking);
+        }
+    }
+
+    /// The ids a store wrote, each with the version the write produced, in order.
+    private static final class ChangeLog {
+        private long[] versions = new long[16];
+        private int[] ids = new int[16];
+        private int size;
+
+        synchronized void add(long version, int id) {
+            if (size == ids.length) {
+                versions = Arrays.copyOf(versions, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            versions[size] = version;
+            ids[size++] = id;
+        }
+
+        /// Ids written after `version`, possibly repeated.
+        synchronized IntList since(long version) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (versions[middle] <= version) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            IntList since = new IntList(size - low);
+            for (int i = low; i < size; i++) {
+                since.add(ids[i]);
+            }
+            return since;
+        }
+    }
+}
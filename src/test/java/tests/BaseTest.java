@@ -1,11 +1,20 @@
 package tests;
 
+import api.ApiContext;
 import config.TestConfig;
-import org.aeonbits.owner.ConfigFactory;
+import extensions.ApiContextExtension;
+import extensions.BookingIsolationExtension;
+import extensions.EndpointMetricsExtension;
+import extensions.ExchangeLogExtension;
+import extensions.ResponseLeakExtension;
+import extensions.StandInServerExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith({ApiContextExtension.class, StandInServerExtension.class, BookingIsolationExtension.class,
+        ExchangeLogExtension.class, EndpointMetricsExtension.class, ResponseLeakExtension.class})
 public abstract class BaseTest {
 
     protected TestConfig config =
-            ConfigFactory.create(TestConfig.class);
+            ApiContext.get().config();
 
-}
\ No newline at end of file
+}
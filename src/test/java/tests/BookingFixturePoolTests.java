@@ -0,0 +1,63 @@
+package tests;
+
+import api.ApiContext;
+import api.BookingBranch;
+import api.RestfulBookerApi;
+import extensions.ApiContextExtension;
+import model.booking.CreateResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import server.StandInServer;
+import steps.BookingFixturePool;
+import steps.BookingSteps;
+import store.IndexedBookingStore;
+import store.VersionedBookingStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(ApiContextExtension.class)
+public class BookingFixturePoolTests {
+
+    /// With per-test branches, a READ_ONLY lease that misses the pool creates its
+    /// booking in the shared state, so the other tests it is handed to can read it.
+    @Test
+    void readOnlyMissIsSharedAcrossBranches() throws Exception {
+        VersionedBookingStore shared = new VersionedBookingStore();
+        StandInServer server = new StandInServer(shared, "admin", "password123").start(0);
+        server.branch("first", shared.fork());
+        server.branch("second", shared.fork());
+        BookingSteps steps = new BookingSteps(ApiContext.get().api(RestfulBookerApi.class, server.baseUrl()));
+        // Nothing pooled and no refills, so every lease creates inline.
+        BookingFixturePool pool = new BookingFixturePool(steps, 0, 0, 1);
+        try {
+            BookingBranch.set("first");
+            CreateResponse leased = pool.lease(BookingFixturePool.Lease.READ_ONLY);
+            assertThat(BookingBranch.current()).isEqualTo("first");
+
+            BookingBranch.set("second");
+            assertThat(pool.lease(BookingFixturePool.Lease.READ_ONLY).getBookingid())
+                    .isEqualTo(leased.getBookingid());
+            assertThat(steps.getBookingById(leased.getBookingid()).getFirstname())
+                    .isEqualTo(leased.getBooking().getFirstname());
+            assertThat(shared.get(leased.getBookingid())).isNotNull();
+        } finally {
+            BookingBranch.set(null);
+            server.stop();
+        }
+    }
+
+    /// Without a shared read-only set, READ_ONLY leases take bookings like MUTATING ones.
+    @Test
+    void noSharedReadOnlySetLeasesFreshBookings() throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        BookingSteps steps = new BookingSteps(ApiContext.get().api(RestfulBookerApi.class, server.baseUrl()));
+        BookingFixturePool pool = new BookingFixturePool(steps, 0, 0, 0);
+        try {
+            int first = pool.lease(BookingFixturePool.Lease.READ_ONLY).getBookingid();
+            int second = pool.lease(BookingFixturePool.Lease.READ_ONLY).getBookingid();
+            assertThat(second).isNotEqualTo(first);
+        } finally {
+            server.stop();
+        }
+    }
+}
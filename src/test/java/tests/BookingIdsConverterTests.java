@@ -0,0 +1,49 @@
+package tests;
+
+import api.BookingIdsConverterFactory;
+import com.google.gson.JsonParseException;
+import model.booking.BookingIds;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BookingIdsConverterTests {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    @Test
+    void readsIdsAndFlagsBadOnesInOnePass() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int id = 1; id <= 100_000; id++) {
+            body.append("{\"bookingid\":").append(id).append("},");
+        }
+        body.append("{\"bookingid\":77},{\"bookingid\":0},{\"bookingid\":-3},{\"bookingid\":0}]");
+
+        BookingIds ids = BookingIdsConverterFactory.read(ResponseBody.create(JSON, body.toString()));
+
+        assertThat(ids.size()).isEqualTo(100_004);
+        assertThat(ids.get(0)).isEqualTo(1);
+        assertThat(ids.get(99_999)).isEqualTo(100_000);
+        assertThat(ids.duplicates()).containsExactly(77, 0);
+        assertThat(ids.nonPositive()).containsExactly(0, -3, 0);
+    }
+
+    @Test
+    void readsEmptyList() throws Exception {
+        BookingIds ids = BookingIdsConverterFactory.read(ResponseBody.create(JSON, "[]"));
+
+        assertThat(ids.isEmpty()).isTrue();
+        assertThat(ids.toArray()).isEmpty();
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        assertThatThrownBy(() -> BookingIdsConverterFactory.read(
+                ResponseBody.create(JSON, "[{\"bookingId\":1}]")))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("bookingId");
+    }
+}
@@ -0,0 +1,308 @@
+package tests;
+
+import model.booking.BookingDates;
+import model.booking.CreateUpdateRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import store.BookingQuery;
+import store.BookingStore;
+import store.InMemoryBookingStore;
+import store.IndexedBookingStore;
+import store.JournaledBookingStore;
+import store.VersionedBookingStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BookingStoreTests {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    /// The scanning store is the reference: every indexed answer must match it.
+    @Test
+    void indexedStoreMatchesScan() {
+        SplittableRandom random = new SplittableRandom(7);
+        BookingStore reference = new InMemoryBookingStore();
+        BookingStore indexed = new IndexedBookingStore();
+
+        for (int i = 0; i < 5_000; i++) {
+            int op = random.nextInt(10);
+            int id = 1 + random.nextInt(Math.max(reference.size(), 1) + 10);
+            if (op < 6) {
+                CreateUpdateRequest booking = booking(random);
+                assertThat(indexed.create(booking)).isEqualTo(reference.create(booking));
+            } else if (op < 8) {
+                CreateUpdateRequest booking = booking(random);
+                assertThat(indexed.update(id, booking)).isEqualTo(reference.update(id, booking));
+            } else {
+                assertThat(indexed.delete(id)).isEqualTo(reference.delete(id));
+            }
+        }
+
+        assertThat(indexed.size()).isEqualTo(reference.size());
+        for (int i = 0; i < 2_000; i++) {
+            BookingQuery query = query(random);
+            assertThat(indexed.find(query)).as(query.toString()).isEqualTo(reference.find(query));
+        }
+    }
+
+    /// With no booking checking out before it checks in, the indexes narrow date
+    /// ranges from both bounds; crossed bounds must still answer like the scan.
+    @Test
+    void indexedStoreMatchesScanWithoutInvertedBookings() {
+        SplittableRandom random = new SplittableRandom(13);
+        BookingStore reference = new InMemoryBookingStore();
+        BookingStore indexed = new IndexedBookingStore();
+        for (int i = 0; i < 2_000; i++) {
+            CreateUpdateRequest booking = booking(random, 0);
+            assertThat(indexed.create(booking)).isEqualTo(reference.create(booking));
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            BookingQuery query = query(random);
+            assertThat(indexed.find(query)).as(query.toString()).isEqualTo(reference.find(query));
+        }
+        BookingQuery crossed = BookingQuery.builder()
+                .checkin(FIRST_DAY.plusDays(20))
+                .checkout(FIRST_DAY.plusDays(10))
+                .build();
+        assertThat(indexed.find(crossed)).isEmpty();
+        assertThat(reference.find(crossed)).isEmpty();
+    }
+
+    /// Reopening the journal directory must rebuild exactly the state that was written,
+    /// across snapshots and the journal written after the last one.
+    @Test
+    void journaledStoreRecoversAfterRestart(@TempDir Path dir) throws Exception {
+        SplittableRandom random = new SplittableRandom(11);
+        BookingStore reference = new InMemoryBookingStore();
+        JournaledBookingStore.Options options = JournaledBookingStore.Options.builder()
+                .segmentSize(64 << 10)
+                .snapshotEvery(700)
+                .build();
+
+        JournaledBookingStore journaled = JournaledBookingStore.open(dir, new IndexedBookingStore(), options);
+        for (int i = 0; i < 3_000; i++) {
+            int op = random.nextInt(10);
+            int id = 1 + random.nextInt(Math.max(reference.size(), 1) + 10);
+            CreateUpdateRequest booking = booking(random);
+            if (op < 6) {
+                assertThat(journaled.create(booking)).isEqualTo(reference.create(booking));
+            } else if (op < 8) {
+                assertThat(journaled.update(id, booking)).isEqualTo(reference.update(id, booking));
+            } else {
+                assertThat(journaled.delete(id)).isEqualTo(reference.delete(id));
+            }
+        }
+        journaled.close();
+
+        JournaledBookingStore reopened = JournaledBookingStore.open(dir, new IndexedBookingStore(), options);
+        assertThat(reopened.size()).isEqualTo(reference.size());
+        reference.forEach((booking, id) -> assertThat(reopened.get(id)).isEqualTo(booking));
+        assertThat(reopened.create(booking(random))).isEqualTo(reference.create(booking(random)));
+        reopened.close();
+    }
+
+    /// A damaged snapshot whose journal was already dropped must stop recovery
+    /// rather than fall back to an older state.
+    @Test
+    void journaledStoreRefusesACorruptSnapshot(@TempDir Path dir) throws Exception {
+        SplittableRandom random = new SplittableRandom(19);
+        JournaledBookingStore.Options options = JournaledBookingStore.Options.builder()
+                .segmentSize(64 << 10)
+                .build();
+        JournaledBookingStore journaled = JournaledBookingStore.open(dir, new IndexedBookingStore(), options);
+        for (int i = 0; i < 200; i++) {
+            journaled.create(booking(random));
+        }
+        journaled.snapshot();
+        journaled.create(booking(random));
+        journaled.close();
+
+        Path snapshot = files(dir, "snapshot-").get(0);
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), 100);
+        }
+        assertThatThrownBy(() -> JournaledBookingStore.open(dir, new IndexedBookingStore(), options))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("is corrupt");
+    }
+
+    /// A record torn by a crash is dropped on reopen, along with everything after
+    /// it, and the journal carries on cleanly from the last intact record.
+    @Test
+    void journaledStoreDropsATornTail(@TempDir Path dir) throws Exception {
+        SplittableRandom random = new SplittableRandom(23);
+        BookingStore reference = new InMemoryBookingStore();
+        JournaledBookingStore.Options options = JournaledBookingStore.Options.builder()
+                .segmentSize(64 << 10)
+                .build();
+        JournaledBookingStore journaled = JournaledBookingStore.open(dir, new IndexedBookingStore(), options);
+        int last = 0;
+        for (int i = 0; i < 100; i++) {
+            CreateUpdateRequest booking = booking(random);
+            last = journaled.create(booking);
+            if (i < 99) {
+                reference.create(booking);
+            }
+        }
+        journaled.close();
+
+        // Records are [int length][int crc32][payload]; break the payload of the last one.
+        Path segment = files(dir, "journal-").get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            long position = 0;
+            long lastRecord = 0;
+            while (true) {
+                header.clear();
+                channel.read(header, position);
+                int length = header.getInt(0);
+                if (length <= 0) {
+                    break;
+                }
+                lastRecord = position;
+                position += 8 + length;
+            }
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F, 0x7F}), lastRecord + 10);
+        }
+
+        JournaledBookingStore reopened = JournaledBookingStore.open(dir, new IndexedBookingStore(), options);
+        assertThat(reopened.size()).isEqualTo(99);
+        assertThat(reopened.get(last)).isNull();
+        reference.forEach((booking, id) -> assertThat(reopened.get(id)).isEqualTo(booking));
+        CreateUpdateRequest after = booking(random);
+        int afterId = reopened.create(after);
+        reopened.close();
+
+        JournaledBookingStore again = JournaledBookingStore.open(dir, new IndexedBookingStore(), options);
+        assertThat(again.size()).isEqualTo(100);
+        assertThat(again.get(afterId)).isEqualTo(after);
+        again.close();
+    }
+
+    private static List<Path> files(Path dir, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+
+    /// A fork sees its parent as of the fork plus what the parent gains later, and its
+    /// own changes stay out of the parent; rolling back restores the snapshot exactly.
+    @Test
+    void versionedStoreForksAndRollsBack() {
+        SplittableRandom random = new SplittableRandom(5);
+        VersionedBookingStore shared = new VersionedBookingStore();
+        BookingStore reference = new InMemoryBookingStore();
+        for (int i = 0; i < 2_000; i++) {
+            CreateUpdateRequest booking = booking(random);
+            assertThat(shared.create(booking)).isEqualTo(reference.create(booking));
+        }
+        VersionedBookingStore.Snapshot preloaded = shared.snapshot();
+
+        VersionedBookingStore fork = shared.fork();
+        CreateUpdateRequest changed = booking(random);
+        assertThat(fork.update(10, changed)).isTrue();
+        assertThat(fork.delete(11)).isTrue();
+        int forkOnly = fork.create(booking(random));
+        int sharedLater = shared.create(booking(random));
+
+        assertThat(fork.get(10)).isEqualTo(changed);
+        assertThat(fork.get(11)).isNull();
+        assertThat(fork.get(sharedLater)).isEqualTo(shared.get(sharedLater));
+        assertThat(fork.delete(sharedLater)).isTrue();
+        assertThat(fork.get(sharedLater)).isNull();
+        assertThat(fork.size()).isEqualTo(2_000);
+        assertThat(shared.get(10)).isEqualTo(reference.get(10));
+        assertThat(shared.get(11)).isNotNull();
+        assertThat(shared.get(forkOnly)).isNull();
+        assertThat(shared.get(sharedLater)).isNotNull();
+
+        shared.rollback(preloaded);
+        assertThat(shared.size()).isEqualTo(reference.size());
+        for (int i = 0; i < 500; i++) {
+            BookingQuery query = query(random);
+            assertThat(shared.find(query)).as(query.toString()).isEqualTo(reference.find(query));
+        }
+    }
+
+    /// Forks answer queries from the parent's indexes plus their own changes; the
+    /// answers match a scan of the fork's bookings while both sides keep writing,
+    /// including a fork of a fork and a rollback of the shared store.
+    @Test
+    void versionedForkQueriesMatchScan() {
+        SplittableRandom random = new SplittableRandom(17);
+        VersionedBookingStore shared = new VersionedBookingStore();
+        for (int i = 0; i < 2_000; i++) {
+            shared.create(booking(random));
+        }
+        VersionedBookingStore.Snapshot preloaded = shared.snapshot();
+        VersionedBookingStore fork = shared.fork();
+        VersionedBookingStore nested = fork.fork();
+
+        for (int round = 0; round < 20; round++) {
+            for (VersionedBookingStore store : new VersionedBookingStore[]{shared, fork, nested}) {
+                for (int i = 0; i < 20; i++) {
+                    int id = 1 + random.nextInt(2_000 + 20 * round);
+                    switch (random.nextInt(3)) {
+                        case 0 -> store.create(booking(random));
+                        case 1 -> store.update(id, booking(random));
+                        default -> store.delete(id);
+                    }
+                }
+            }
+            if (round == 10) {
+                shared.rollback(preloaded);
+            }
+            for (VersionedBookingStore store : new VersionedBookingStore[]{shared, fork, nested}) {
+                BookingStore scan = new InMemoryBookingStore();
+                store.forEach((booking, id) -> scan.restore(id, booking));
+                assertThat(store.size()).isEqualTo(scan.size());
+                for (int i = 0; i < 25; i++) {
+                    BookingQuery query = query(random);
+                    assertThat(store.find(query)).as(query.toString()).isEqualTo(scan.find(query));
+                }
+            }
+        }
+    }
+
+    static CreateUpdateRequest booking(SplittableRandom random) {
+        return booking(random, -2);
+    }
+
+    /// Stays last from `minNights` to 11 nights; negative values allow inverted dates.
+    static CreateUpdateRequest booking(SplittableRandom random, int minNights) {
+        LocalDate checkin = FIRST_DAY.plusDays(random.nextInt(60));
+        return CreateUpdateRequest.builder()
+                .firstname("First" + random.nextInt(20))
+                .lastname("Last" + random.nextInt(30))
+                .totalprice(random.nextInt(500))
+                .depositpaid(random.nextBoolean())
+                .bookingdates(BookingDates.builder()
+                        .checkin(checkin.toString())
+                        .checkout(checkin.plusDays(minNights + random.nextInt(12 - minNights)).toString())
+                        .build())
+                .additionalneeds(random.nextBoolean() ? "Breakfast" : null)
+                .build();
+    }
+
+    static BookingQuery query(SplittableRandom random) {
+        return BookingQuery.builder()
+                .firstname(random.nextBoolean() ? "First" + random.nextInt(20) : null)
+                .lastname(random.nextBoolean() ? "Last" + random.nextInt(30) : null)
+                .checkin(random.nextBoolean() ? FIRST_DAY.plusDays(random.nextInt(70)) : null)
+                .checkout(random.nextBoolean() ? FIRST_DAY.plusDays(random.nextInt(80)) : null)
+                .build();
+    }
+}
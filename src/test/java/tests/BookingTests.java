@@ -9,11 +9,16 @@ import okhttp3.ResponseBody;
 import org.junit.jupiter.api.Test;
 import retrofit2.Response;
 import steps.AuthSteps;
+import steps.BookingFixturePool;
 import steps.BookingSteps;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static steps.BookingFixturePool.Lease.MUTATING;
+import static steps.BookingFixturePool.Lease.READ_ONLY;
+import static steps.Futures.await;
 
 public class BookingTests extends BaseTest {
     protected final String CONTENT_TYPE = "application/json";
@@ -30,33 +35,32 @@ public class BookingTests extends BaseTest {
                     config.baseUrl()
             );
 
+    private final BookingFixturePool fixtures =
+            BookingFixturePool.shared();
+
     /// getBookingIDs
     @Test
     void getBookingIDs200() throws Exception {
         BookingSteps bookingSteps = new BookingSteps(api);
 
-        Response<List<GetBookingIDsResponse>> response = bookingSteps.getBookingListIds(null,
+        Response<BookingIds> response = bookingSteps.getBookingIdArray(null,
                 null,
                 null,
                 null);
 
         assertThat(response.code()).isEqualTo(200);
         assertThat(response.body()).isNotNull();
-        assertThat(response.body()).isNotEmpty();
-        response.body().forEach(id ->
-                assertThat(id.getBookingid()).isPositive());
-        assertThat(response.body())
-                .extracting(b -> b.getBookingid())
-                .doesNotHaveDuplicates();
+        assertThat(response.body().isEmpty()).isFalse();
+        assertThat(response.body().nonPositive()).isEmpty();
+        assertThat(response.body().duplicates()).isEmpty();
     }
 
     @Test
     void getNameBookingIDs200() throws Exception {
-        String name = "Vlad";
-        BookingData BookingData = new BookingData();
         BookingSteps bookingSteps = new BookingSteps(api);
-        bookingSteps.create(BookingData.defaultBooking());
-
+        CreateResponse created =
+                fixtures.lease(READ_ONLY);
+        String name = created.getBooking().getFirstname();
 
         Response<List<GetBookingIDsResponse>> response =
                bookingSteps.getBookingListIds(
@@ -74,6 +78,7 @@ public class BookingTests extends BaseTest {
         assertThat(response.body()).isNotNull();
         assertThat(response.body()).isNotEmpty();
         assertThat(booking.getFirstname()).isEqualTo(name);
+        assertThat(id).isEqualTo(created.getBookingid());
     }
 
     @Test
@@ -93,20 +98,24 @@ public class BookingTests extends BaseTest {
 
     @Test
     void getFullBookingIDs200() throws Exception {
-        BookingData BookingData = new BookingData();
         BookingSteps bookingSteps = new BookingSteps(api);
-        bookingSteps.create(BookingData.defaultBooking());
+        CreateResponse created =
+                fixtures.lease(READ_ONLY);
+        BookingResponse booking = created.getBooking();
 
         Response<List<GetBookingIDsResponse>> response =
                bookingSteps.getBookingListIds(
-                        "Vlad",
-                        "Tretyakov",
-                        "2024-05-10",
-                        "2024-09-01");
+                        booking.getFirstname(),
+                        booking.getLastname(),
+                        booking.getBookingdates().getCheckin(),
+                        booking.getBookingdates().getCheckout());
 
         assertThat(response.code()).isEqualTo(200);
         assertThat(response.body()).isNotNull();
         assertThat(response.body()).isNotEmpty();
+        assertThat(response.body())
+                .extracting(b -> b.getBookingid())
+                .containsExactly(created.getBookingid());
     }
 
     /// getBooking
@@ -169,8 +178,8 @@ public class BookingTests extends BaseTest {
                bookingSteps.create(BookingData.defaultBooking());
 
         assertThat(created.getBookingid()).isPositive();
-        assertThat(created.getBooking().getFirstname()).isEqualTo("Vlad");
-        assertThat(created.getBooking().getLastname()).isEqualTo("Tretyakov");
+        assertThat(created.getBooking().getFirstname()).isEqualTo(BookingData.getFirstname());
+        assertThat(created.getBooking().getLastname()).isEqualTo(BookingData.getLastname());
     }
 
     @Test
@@ -245,12 +254,14 @@ public class BookingTests extends BaseTest {
     @Test
     void update200Token() throws Exception {
         AuthSteps authSteps = new AuthSteps(api);
-        String token = authSteps.createToken(LOGIN, PASS).body().getToken();
-
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
+
+        CompletableFuture<String> tokenCookie =
+                authSteps.tokenCookieAsync(LOGIN, PASS);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
+
+        String token = await(tokenCookie);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -259,7 +270,7 @@ public class BookingTests extends BaseTest {
                 api.updateBookingToken(
                         CONTENT_TYPE,
                         ACCEPT,
-                        "token=" + token,
+                        token,
                         created.getBookingid(),
                         body).execute();
 
@@ -295,9 +306,8 @@ public class BookingTests extends BaseTest {
         String token = authSteps.createToken(LOGIN, WRONG).body().getToken();
 
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -320,9 +330,8 @@ public class BookingTests extends BaseTest {
         String token = authSteps.createToken(WRONG, PASS).body().getToken();
 
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -343,9 +352,8 @@ public class BookingTests extends BaseTest {
     void updateNoneAuth403Token() throws Exception {
 
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -365,12 +373,13 @@ public class BookingTests extends BaseTest {
     @Test
     void update200Auth() throws Exception {
 
+        AuthSteps authSteps = new AuthSteps(api);
         String auth =
-                Credentials.basic(LOGIN, PASS);
+                authSteps.basicAuth(LOGIN, PASS);
 
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
-        CreateResponse created = bookingSteps.create(BookingData.defaultBooking());
+        CreateResponse created =
+                fixtures.lease(MUTATING);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -415,9 +424,8 @@ public class BookingTests extends BaseTest {
                 Credentials.basic(LOGIN, WRONG);
 
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -441,9 +449,8 @@ public class BookingTests extends BaseTest {
                 Credentials.basic(WRONG, PASS);
 
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -464,9 +471,8 @@ public class BookingTests extends BaseTest {
     void updateNoneAuth403Auth() throws Exception {
 
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -486,12 +492,11 @@ public class BookingTests extends BaseTest {
     @Test
     void updateWrongID405Token() throws Exception {
         AuthSteps authSteps = new AuthSteps(api);
-        String token = authSteps.createToken(LOGIN, PASS).body().getToken();
+        String token = authSteps.tokenCookie(LOGIN, PASS);
 
         BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         CreateUpdateRequest body =
                 BookingData.updateBooking();
@@ -500,7 +505,7 @@ public class BookingTests extends BaseTest {
                 api.updateBookingToken(
                         CONTENT_TYPE,
                         ACCEPT,
-                        "token=" + token,
+                        token,
                         999999,
                         body).execute();
 
@@ -511,8 +516,9 @@ public class BookingTests extends BaseTest {
     @Test
     void updateWrongID405Auth() throws Exception {
 
+        AuthSteps authSteps = new AuthSteps(api);
         String auth =
-                Credentials.basic(LOGIN,PASS);
+                authSteps.basicAuth(LOGIN, PASS);
 
         BookingData BookingData = new BookingData();
         CreateUpdateRequest body =
@@ -534,12 +540,13 @@ public class BookingTests extends BaseTest {
     @Test
     void partialUpdate200Token() throws Exception {
         AuthSteps authSteps = new AuthSteps(api);
-        String token = authSteps.createToken(LOGIN, PASS).body().getToken();
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
+        CompletableFuture<String> tokenCookie =
+                authSteps.tokenCookieAsync(LOGIN, PASS);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
+
+        String token = await(tokenCookie);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -549,7 +556,7 @@ public class BookingTests extends BaseTest {
                 api.partialUpdateBookingToken(
                         CONTENT_TYPE,
                         ACCEPT,
-                        "token=" + token,
+                        token,
                         created.getBookingid(),
                         body).execute();
 
@@ -568,10 +575,8 @@ public class BookingTests extends BaseTest {
         AuthSteps authSteps = new AuthSteps(api);
         String token = authSteps.createToken(LOGIN, WRONG).body().getToken();
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -594,10 +599,8 @@ public class BookingTests extends BaseTest {
         AuthSteps authSteps = new AuthSteps(api);
         String token = authSteps.createToken(WRONG, PASS).body().getToken();
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -617,10 +620,8 @@ public class BookingTests extends BaseTest {
     @Test
     void partialUpdateNoneAuth403Token() throws Exception {
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -640,13 +641,12 @@ public class BookingTests extends BaseTest {
     @Test
     void partialUpdate200Auth() throws Exception {
 
+        AuthSteps authSteps = new AuthSteps(api);
         String auth =
-                Credentials.basic(LOGIN, PASS);
+                authSteps.basicAuth(LOGIN, PASS);
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -677,10 +677,8 @@ public class BookingTests extends BaseTest {
         String auth =
                 Credentials.basic(LOGIN, WRONG);
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -703,10 +701,8 @@ public class BookingTests extends BaseTest {
         String auth =
                 Credentials.basic(WRONG, PASS);
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -726,10 +722,8 @@ public class BookingTests extends BaseTest {
     @Test
     void partialUpdateNoneAuth403Auth() throws Exception {
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -749,12 +743,10 @@ public class BookingTests extends BaseTest {
     @Test
     void partialUpdateWrongID405Token() throws Exception {
         AuthSteps authSteps = new AuthSteps(api);
-        String token = authSteps.createToken(LOGIN, PASS).body().getToken();
+        String token = authSteps.tokenCookie(LOGIN, PASS);
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -763,7 +755,7 @@ public class BookingTests extends BaseTest {
                 api.partialUpdateBookingToken(
                         CONTENT_TYPE,
                         ACCEPT,
-                        "token=" + token,
+                        token,
                         999999,
                         body).execute();
 
@@ -774,8 +766,9 @@ public class BookingTests extends BaseTest {
     @Test
     void partialUpdateWrongID405Auth() throws Exception {
 
+        AuthSteps authSteps = new AuthSteps(api);
         String auth =
-                Credentials.basic(LOGIN,PASS);
+                authSteps.basicAuth(LOGIN, PASS);
 
         PartialUpdateRequest body = new PartialUpdateRequest();
         body.setFirstname(UPFIRST);
@@ -796,15 +789,16 @@ public class BookingTests extends BaseTest {
     @Test
     void delete200Token() throws Exception {
         AuthSteps authSteps = new AuthSteps(api);
-        String token = authSteps.createToken(LOGIN, PASS).body().getToken();
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
+        CompletableFuture<String> tokenCookie =
+                authSteps.tokenCookieAsync(LOGIN, PASS);
         CreateResponse created =
-                bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
+
+        String token = await(tokenCookie);
 
         Response<ResponseBody> response =
-                api.deleteBookingToken("token=" + token, created.getBookingid()).execute();
+                api.deleteBookingToken(token, created.getBookingid()).execute();
         assertThat(response.code()).isEqualTo(201);
 
         Response<BookingResponse> get =
@@ -821,10 +815,8 @@ public class BookingTests extends BaseTest {
         AuthSteps authSteps = new AuthSteps(api);
         String token = authSteps.createToken(LOGIN, WRONG).body().getToken();
 
-        BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-                bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         Response<ResponseBody> response =
                 api.deleteBookingToken("token=" + token, created.getBookingid()).execute();
@@ -844,10 +836,8 @@ public class BookingTests extends BaseTest {
         AuthSteps authSteps = new AuthSteps(api);
         String token = authSteps.createToken(WRONG, PASS).body().getToken();
 
-        BookingData bookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-                bookingSteps.create(bookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         Response<ResponseBody> response =
                 api.deleteBookingToken("token=" + token, created.getBookingid()).execute();
@@ -865,15 +855,13 @@ public class BookingTests extends BaseTest {
     @Test
     void delete404WrongIDToken() throws Exception {
         AuthSteps authSteps = new AuthSteps(api);
-        String token = authSteps.createToken(LOGIN, PASS).body().getToken();
+        String token = authSteps.tokenCookie(LOGIN, PASS);
 
-        BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-                bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         Response<ResponseBody> response =
-                api.deleteBookingToken("token=" + token, 999999).execute();
+                api.deleteBookingToken(token, 999999).execute();
         assertThat(response.code()).isEqualTo(405);
 
         Response<BookingResponse> get =
@@ -888,13 +876,12 @@ public class BookingTests extends BaseTest {
     @Test
     void delete200Auth() throws Exception {
 
+        AuthSteps authSteps = new AuthSteps(api);
         String auth =
-                Credentials.basic(LOGIN,PASS);
+                authSteps.basicAuth(LOGIN, PASS);
 
-        BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-                bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         Response<ResponseBody> response =
                 api.deleteBookingAuth(auth, created.getBookingid()).execute();
@@ -915,10 +902,8 @@ public class BookingTests extends BaseTest {
         String auth =
                 Credentials.basic(LOGIN,WRONG);
 
-        BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-                bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         Response<ResponseBody> response =
                 api.deleteBookingAuth(auth, created.getBookingid()).execute();
@@ -939,10 +924,8 @@ public class BookingTests extends BaseTest {
         String auth =
                 Credentials.basic(WRONG,PASS);
 
-        BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-                bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         Response<ResponseBody> response =
                 api.deleteBookingAuth(auth, created.getBookingid()).execute();
@@ -960,13 +943,12 @@ public class BookingTests extends BaseTest {
     @Test
     void delete404WrongIDAuth() throws Exception {
 
+        AuthSteps authSteps = new AuthSteps(api);
         String auth =
-                Credentials.basic(LOGIN,PASS);
+                authSteps.basicAuth(LOGIN, PASS);
 
-        BookingData BookingData = new BookingData();
-        BookingSteps bookingSteps = new BookingSteps(api);
         CreateResponse created =
-               bookingSteps.create(BookingData.defaultBooking());
+                fixtures.lease(MUTATING);
 
         Response<ResponseBody> response =
                 api.deleteBookingAuth(auth, 999999).execute();
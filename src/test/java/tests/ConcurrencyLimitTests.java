@@ -0,0 +1,179 @@
+package tests;
+
+import api.ConcurrencyLimit;
+import api.ConcurrencyLimitInterceptor;
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrencyLimitTests {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void aimdGrowsWhileBusyAndBacksOffOnDrops() {
+        ConcurrencyLimit aimd = ConcurrencyLimit.parse("aimd(10, 1, 50, 0.5)");
+        for (int i = 0; i < 100; i++) {
+            aimd.onSample(10 * MILLIS, aimd.limit(), false);
+        }
+        assertThat(aimd.limit()).isBetween(15, 20);
+
+        int busy = aimd.limit();
+        aimd.onSample(10 * MILLIS, busy, true);
+        assertThat(aimd.limit()).isEqualTo(busy / 2);
+
+        for (int i = 0; i < 100; i++) {
+            aimd.onSample(10 * MILLIS, 1, false);
+        }
+        assertThat(aimd.limit()).as("idle calls do not grow the limit").isEqualTo(busy / 2);
+    }
+
+    @Test
+    void gradientShrinksWhenLatencyRises() {
+        ConcurrencyLimit gradient = ConcurrencyLimit.parse("gradient(20, 4, 200)");
+        for (int i = 0; i < 2_000; i++) {
+            gradient.onSample(10 * MILLIS, gradient.limit(), false);
+        }
+        int steady = gradient.limit();
+        assertThat(steady).isGreaterThan(20);
+
+        for (int i = 0; i < 20; i++) {
+            gradient.onSample(40 * MILLIS, gradient.limit(), false);
+        }
+        assertThat(gradient.limit()).isLessThan(steady * 3 / 4);
+    }
+
+    @Test
+    void shedPolicyRejectsCallsOverTheLimit() throws Exception {
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(
+                ConcurrencyLimit.parse("aimd(2, 2, 2, 0.5)"), ConcurrencyLimitInterceptor.Policy.SHED, 10, 0);
+        CountDownLatch hold = new CountDownLatch(1);
+        OkHttpClient client = client(limiter, hold);
+
+        List<CompletableFuture<Integer>> held = start(client, 2);
+        awaitInFlight(limiter, 2);
+        assertThatThrownBy(() -> client.newCall(request()).execute())
+                .isInstanceOf(ConcurrencyLimitInterceptor.RejectedException.class);
+
+        hold.countDown();
+        for (CompletableFuture<Integer> call : held) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+        }
+        assertThat(limiter.shed()).isEqualTo(1);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void queuePolicyWaitsForASlot() throws Exception {
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(
+                ConcurrencyLimit.parse("aimd(2, 2, 2, 0.5)"), ConcurrencyLimitInterceptor.Policy.QUEUE, 10,
+                TimeUnit.SECONDS.toNanos(5));
+        CountDownLatch hold = new CountDownLatch(1);
+        OkHttpClient client = client(limiter, hold);
+
+        List<CompletableFuture<Integer>> calls = start(client, 3);
+        awaitInFlight(limiter, 2);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.queued() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(limiter.queued()).isEqualTo(1);
+
+        hold.countDown();
+        for (CompletableFuture<Integer> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+        }
+        assertThat(limiter.accepted()).isEqualTo(3);
+        assertThat(limiter.shed()).isZero();
+    }
+
+    /// A call keeps its slot until its body is closed, not just until the headers arrive.
+    @Test
+    void slotIsHeldUntilTheBodyIsClosed() throws Exception {
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(
+                ConcurrencyLimit.parse("aimd(1, 1, 1, 0.5)"), ConcurrencyLimitInterceptor.Policy.SHED, 10, 0);
+        CountDownLatch hold = new CountDownLatch(0);
+        OkHttpClient client = client(limiter, hold);
+
+        Response open = client.newCall(request()).execute();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThatThrownBy(() -> client.newCall(request()).execute())
+                .isInstanceOf(ConcurrencyLimitInterceptor.RejectedException.class);
+
+        assertThat(open.body().string()).isEqualTo("ok");
+        assertThat(limiter.inFlight()).isZero();
+        open.close();
+        assertThat(limiter.inFlight()).as("released once").isZero();
+        try (Response next = client.newCall(request()).execute()) {
+            assertThat(next.code()).isEqualTo(200);
+        }
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    /// The limiter in front of a stand-in for the network that answers 200 once released.
+    private static OkHttpClient client(ConcurrencyLimitInterceptor limiter, CountDownLatch hold) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(limiter)
+                .addInterceptor(chain -> {
+                    try {
+                        hold.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(200)
+                            .message("OK")
+                            .body(ResponseBody.create(MediaType.get("text/plain"), "ok"))
+                            .build();
+                })
+                .build();
+    }
+
+    private static List<CompletableFuture<Integer>> start(OkHttpClient client, int count) {
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Call call = client.newCall(request());
+            CompletableFuture<Integer> result = new CompletableFuture<>();
+            new Thread(() -> {
+                int code;
+                try (Response response = call.execute()) {
+                    code = response.code();
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                result.complete(code);
+            }).start();
+            calls.add(result);
+        }
+        return calls;
+    }
+
+    private static void awaitInFlight(ConcurrencyLimitInterceptor limiter, int inFlight) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.inFlight() < inFlight && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(limiter.inFlight()).isEqualTo(inFlight);
+    }
+
+    private static Request request() {
+        return new Request.Builder().url("http://localhost/booking").build();
+    }
+}
@@ -0,0 +1,112 @@
+package tests;
+
+import api.ApiContext;
+import api.EndpointMetrics;
+import api.EndpointMetricsSnapshot;
+import api.RestfulBookerApi;
+import data.BookingData;
+import extensions.ApiContextExtension;
+import model.booking.BookingResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import retrofit2.Response;
+import server.StandInServer;
+import store.IndexedBookingStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(ApiContextExtension.class)
+public class EndpointMetricsTests {
+
+    private static StandInServer server;
+    private static RestfulBookerApi api;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        api = ApiContext.get().api(RestfulBookerApi.class, server.baseUrl());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void groupsCallsByRetrofitMethod() throws Exception {
+        EndpointMetrics metrics = new EndpointMetrics("groupsCallsByRetrofitMethod");
+        EndpointMetrics.start(metrics);
+        try {
+            int id = api.createBooking("application/json", "application/json",
+                    new BookingData().defaultBooking()).execute().body().getBookingid();
+            assertThat(api.getBooking("application/json", id).execute().code()).isEqualTo(200);
+            Response<BookingResponse> missing = api.getBooking("application/json", id + 1_000).execute();
+            missing.errorBody().close();
+            assertThat(missing.code()).isEqualTo(404);
+        } finally {
+            EndpointMetrics.stop();
+        }
+
+        EndpointMetricsSnapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.getEndpoints()).extracting(EndpointMetricsSnapshot.Endpoint::getName)
+                .containsExactly("createBooking", "getBooking");
+        EndpointMetricsSnapshot.Endpoint create = snapshot.endpoint("createBooking");
+        assertThat(create.getCalls()).isEqualTo(1);
+        assertThat(create.getStatuses()).containsExactly(0, 1, 0, 0, 0);
+        assertThat(create.getBytesOut()).isPositive();
+        assertThat(create.getBytesIn()).isPositive();
+        EndpointMetricsSnapshot.Endpoint get = snapshot.endpoint("getBooking");
+        assertThat(get.getStatuses()).containsExactly(0, 1, 0, 1, 0);
+        assertThat(get.getLatencyMax()).isPositive();
+        assertThat(get.getLatencyHistogram()).isNotEmpty();
+
+        assertThat(ApiContext.get().metrics().snapshot().endpoint("getBooking").getCalls())
+                .as("the suite counts every scope's calls").isGreaterThanOrEqualTo(2);
+    }
+
+    /// Calls from many threads spread over the histogram stripes; none may be lost.
+    @Test
+    void concurrentCallsAreAllCounted() throws Exception {
+        EndpointMetrics metrics = new EndpointMetrics("concurrentCallsAreAllCounted");
+        int id = api.createBooking("application/json", "application/json",
+                new BookingData().defaultBooking()).execute().body().getBookingid();
+
+        List<CompletableFuture<Void>> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            new Thread(() -> {
+                EndpointMetrics.start(metrics);
+                try {
+                    for (int i = 0; i < 100; i++) {
+                        api.getBooking("application/json", id).execute();
+                    }
+                    done.complete(null);
+                } catch (Exception e) {
+                    done.completeExceptionally(e);
+                } finally {
+                    EndpointMetrics.stop();
+                }
+            }).start();
+            threads.add(done);
+        }
+        for (CompletableFuture<Void> thread : threads) {
+            thread.get(30, TimeUnit.SECONDS);
+        }
+
+        EndpointMetricsSnapshot.Endpoint get = metrics.snapshot().endpoint("getBooking");
+        assertThat(get.getCalls()).isEqualTo(800);
+        assertThat(get.getStatuses()[1]).isEqualTo(800);
+        long recorded = 0;
+        for (long[] bucket : get.getLatencyHistogram()) {
+            recorded += bucket[1];
+        }
+        assertThat(recorded).isEqualTo(800);
+    }
+}
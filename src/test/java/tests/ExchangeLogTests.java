@@ -0,0 +1,156 @@
+package tests;
+
+import api.ApiContext;
+import api.ExchangeLog;
+import api.RestfulBookerApi;
+import api.RestfulBookerAsyncApi;
+import extensions.ApiContextExtension;
+import extensions.ExchangeLogExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import server.StandInServer;
+import store.IndexedBookingStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/// Isolated because the extension test swaps System.err, where failing tests print
+/// their exchanges.
+@Isolated
+@ExtendWith(ApiContextExtension.class)
+public class ExchangeLogTests {
+
+    private static volatile String recordedBaseUrl;
+
+    /// Only the last `capacity` exchanges are kept, oldest first, and the header
+    /// says how many were dropped.
+    @Test
+    void keepsTheLastExchanges() throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        RestfulBookerApi api = ApiContext.get().api(RestfulBookerApi.class, server.baseUrl());
+        ExchangeLog log = new ExchangeLog("keepsTheLastExchanges", 3, 1024);
+        ExchangeLog.start(log);
+        try {
+            for (int id = 1; id <= 5; id++) {
+                assertThat(api.getBooking("application/json", id).execute().code()).isEqualTo(404);
+            }
+        } finally {
+            ExchangeLog.stop();
+            server.stop();
+        }
+
+        String text = log.render();
+        assertThat(log.size()).isEqualTo(3);
+        assertThat(text).startsWith("keepsTheLastExchanges: 5 exchanges, last 3 shown\n")
+                .doesNotContain("booking/1\n", "booking/2\n");
+        assertThat(text.indexOf("booking/3\n")).isPositive()
+                .isLessThan(text.indexOf("booking/4\n"))
+                .isLessThan(text.indexOf("booking/5\n"));
+    }
+
+    /// Response bodies are kept up to `bodyBytes`; the rest is only counted.
+    @Test
+    void capsResponseBodies() throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        RestfulBookerApi api = ApiContext.get().api(RestfulBookerApi.class, server.baseUrl());
+        ExchangeLog log = new ExchangeLog("capsResponseBodies", 10, 4);
+        ExchangeLog.start(log);
+        try {
+            assertThat(api.ping().execute().body().string()).isEqualTo("Created");
+        } finally {
+            ExchangeLog.stop();
+            server.stop();
+        }
+
+        assertThat(log.render()).startsWith("capsResponseBodies: 1 exchanges\n")
+                .contains("<-- 201 ", "\nCrea... (3 more bytes)\n");
+    }
+
+    /// Async calls belong to the thread that created them, not the dispatcher thread
+    /// that runs them; calls created on other threads stay out of the test's log.
+    @Test
+    void asyncCallsBelongToTheCallingTest() throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        String baseUrl = server.baseUrl();
+        RestfulBookerAsyncApi async = ApiContext.get().api(RestfulBookerAsyncApi.class, baseUrl);
+        ExchangeLog log = new ExchangeLog("asyncCallsBelongToTheCallingTest", 10, 1024);
+        ExchangeLog.start(log);
+        try {
+            assertThat(async.ping().get().code()).isEqualTo(201);
+            CompletableFuture.supplyAsync(() -> async.getBooking("application/json", 1).join()).get();
+        } finally {
+            ExchangeLog.stop();
+            server.stop();
+        }
+
+        assertThat(log.size()).isEqualTo(1);
+        assertThat(log.render()).contains("--> GET " + baseUrl + "ping", "<-- 201 ");
+    }
+
+    @Test
+    void rejectsAnEmptyLog() {
+        assertThatThrownBy(() -> new ExchangeLog("empty", 0, 1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /// The extension prints a test's exchanges when it fails and stays quiet when it passes.
+    @Test
+    void extensionRendersOnlyOnFailure() throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .build());
+        SummaryGeneratingListener summary = new SummaryGeneratingListener();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream stderr = System.err;
+        String baseUrl = server.baseUrl();
+        recordedBaseUrl = baseUrl;
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            launcher.execute(request().selectors(selectClass(Recorded.class)).build(), summary);
+        } finally {
+            System.setErr(stderr);
+            recordedBaseUrl = null;
+            server.stop();
+        }
+
+        assertThat(summary.getSummary().getTestsSucceededCount()).isEqualTo(1);
+        assertThat(summary.getSummary().getTestsFailedCount()).isEqualTo(1);
+        String printed = err.toString(StandardCharsets.UTF_8);
+        assertThat(printed).contains("[method:fails()] failed; fails(): 1 exchanges",
+                        "--> GET " + baseUrl + "ping")
+                .doesNotContain("passes()");
+    }
+
+    /// Run only by [#extensionRendersOnlyOnFailure()], which supplies the server;
+    /// without ApiContextExtension, so the nested run leaves the shared context open.
+    @ExtendWith(ExchangeLogExtension.class)
+    static class Recorded {
+
+        @Test
+        void passes() throws Exception {
+            assumeTrue(recordedBaseUrl != null);
+            ApiContext.get().api(RestfulBookerApi.class, recordedBaseUrl).ping().execute().body().close();
+        }
+
+        @Test
+        void fails() throws Exception {
+            assumeTrue(recordedBaseUrl != null);
+            ApiContext.get().api(RestfulBookerApi.class, recordedBaseUrl).ping().execute().body().close();
+            fail("expected by extensionRendersOnlyOnFailure");
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package tests;
+
+import api.FaultInjectionInterceptor;
+import api.FaultSpec;
+import api.LatencyDistribution;
+import api.RestfulBookerApi;
+import config.TestConfig;
+import okhttp3.OkHttpClient;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import server.StandInServer;
+import store.IndexedBookingStore;
+
+import java.net.ProtocolException;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class FaultInjectionTests {
+
+    @Test
+    void latencyDistributionsFollowTheirSpec() {
+        double[] lognormal = sample(LatencyDistribution.parse("lognormal(80, 0.6)"), 20_001);
+        assertThat(lognormal[10_000]).isCloseTo(80, within(4.0));
+
+        double[] uniform = sample(LatencyDistribution.parse("uniform(10,20)"), 1_000);
+        assertThat(uniform[0]).isGreaterThanOrEqualTo(10);
+        assertThat(uniform[999]).isLessThan(20);
+
+        double[] histogram = sample(LatencyDistribution.parse("histogram(5:90,200:10)"), 10_000);
+        assertThat(histogram[8_500]).isLessThan(5);
+        assertThat(histogram[9_500]).isBetween(5.0, 200.0);
+    }
+
+    @Test
+    void faultSpecParsesEveryPart() {
+        FaultSpec spec = FaultSpec.parse("latency=fixed(25);error=0.01;status=502;reset=0.02;truncate=0.03");
+
+        assertThat(spec.getLatency().sampleMillis(new SplittableRandom(1))).isEqualTo(25);
+        assertThat(spec.getErrorRate()).isEqualTo(0.01);
+        assertThat(spec.getStatus()).isEqualTo(502);
+        assertThat(spec.getResetRate()).isEqualTo(0.02);
+        assertThat(spec.getTruncateRate()).isEqualTo(0.03);
+        assertThat(FaultSpec.parse("")).isSameAs(FaultSpec.NONE);
+    }
+
+    /// Each endpoint gets the faults of its own spec, at about the configured rates;
+    /// endpoints without one are left alone.
+    @Test
+    void interceptorInjectsFaultsPerEndpoint() throws Exception {
+        TestConfig config = faults(42);
+        config.setProperty("faults.ping", "error=0.2;reset=0.1;truncate=0.1");
+        config.setProperty("faults.getBookingIDs", "error=0.5;status=502");
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        try {
+            RestfulBookerApi api = api(server, new FaultInjectionInterceptor(config));
+
+            Map<String, Long> ping = count(outcomes(2_000, RestfulBookerApi::ping, api));
+            assertThat(ping.get("503")).isCloseTo(400, within(60L));
+            assertThat(ping.get("reset")).isCloseTo(200, within(45L));
+            assertThat(ping.get("truncated")).isCloseTo(200, within(45L));
+            assertThat(ping.get("201")).isCloseTo(1_200, within(70L));
+
+            Map<String, Long> ids = count(outcomes(1_000,
+                    booker -> booker.getBookingIDs(null, null, null, null), api));
+            assertThat(ids.keySet()).containsExactlyInAnyOrder("200", "502");
+            assertThat(ids.get("502")).isCloseTo(500, within(50L));
+
+            assertThat(outcomes(200, booker -> booker.getBooking("application/json", 1), api))
+                    .containsOnly("404");
+        } finally {
+            server.stop();
+        }
+    }
+
+    /// The same seed replays the same fault for the n-th call to an endpoint; another
+    /// seed draws a different sequence.
+    @Test
+    void sameSeedReplaysSameFaults() throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        try {
+            List<List<String>> runs = new ArrayList<>();
+            for (long seed : new long[]{7, 7, 8}) {
+                TestConfig config = faults(seed);
+                config.setProperty("faults.default", "error=0.1;reset=0.1;truncate=0.1");
+                runs.add(outcomes(300, RestfulBookerApi::ping, api(server, new FaultInjectionInterceptor(config))));
+            }
+
+            assertThat(runs.get(0)).contains("503", "reset", "truncated", "201");
+            assertThat(runs.get(1)).isEqualTo(runs.get(0));
+            assertThat(runs.get(2)).isNotEqualTo(runs.get(0));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static TestConfig faults(long seed) {
+        TestConfig config = ConfigFactory.create(TestConfig.class);
+        config.setProperty("faults.enabled", "true");
+        config.setProperty("faults.seed", Long.toString(seed));
+        config.setProperty("faults.default", "");
+        return config;
+    }
+
+    private static RestfulBookerApi api(StandInServer server, FaultInjectionInterceptor faults) {
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(faults).build();
+        return new Retrofit.Builder()
+                .baseUrl(server.baseUrl())
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(RestfulBookerApi.class);
+    }
+
+    /// Status codes, or `reset` / `truncated` for the injected connection faults, in call order.
+    private static List<String> outcomes(int calls, Function<RestfulBookerApi, Call<?>> endpoint,
+                                         RestfulBookerApi api) throws Exception {
+        List<String> outcomes = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            try {
+                Response<?> response = endpoint.apply(api).execute();
+                if (response.errorBody() != null) {
+                    response.errorBody().close();
+                }
+                outcomes.add(Integer.toString(response.code()));
+            } catch (SocketException e) {
+                outcomes.add("reset");
+            } catch (ProtocolException e) {
+                outcomes.add("truncated");
+            }
+        }
+        return outcomes;
+    }
+
+    private static Map<String, Long> count(List<String> outcomes) {
+        return outcomes.stream().collect(Collectors.groupingBy(outcome -> outcome, Collectors.counting()));
+    }
+
+    private static double[] sample(LatencyDistribution distribution, int count) {
+        SplittableRandom random = new SplittableRandom(3);
+        double[] samples = new double[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = distribution.sampleMillis(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+}
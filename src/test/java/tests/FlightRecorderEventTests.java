@@ -0,0 +1,60 @@
+package tests;
+
+import api.ApiContext;
+import api.RestfulBookerApi;
+import data.BookingData;
+import extensions.ApiContextExtension;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import server.StandInServer;
+import steps.BookingSteps;
+import store.IndexedBookingStore;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(ApiContextExtension.class)
+public class FlightRecorderEventTests {
+
+    /// A step and the calls it makes land in the recording, failures included. The
+    /// recording is JVM-wide, so only events from this test's thread are checked.
+    @Test
+    void stepsAndCallsAreRecorded(@TempDir Path dir) throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        BookingSteps steps = new BookingSteps(ApiContext.get().api(RestfulBookerApi.class, server.baseUrl()));
+        Path file = dir.resolve("steps.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("booker.ApiCall");
+            recording.enable("booker.Step");
+            recording.start();
+            int id = steps.create(new BookingData().defaultBooking()).getBookingid();
+            assertThatThrownBy(() -> steps.getBookingById(id + 1_000)).isInstanceOf(AssertionError.class);
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            server.stop();
+        }
+
+        long thread = Thread.currentThread().getId();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getThread() != null && event.getThread().getJavaThreadId() == thread)
+                .toList();
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("booker.Step"))
+                .extracting(event -> event.getString("step"))
+                .contains("BookingSteps.create", "BookingSteps.getBookingById");
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("booker.Step")
+                        && event.getString("step").equals("BookingSteps.getBookingById"))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getString("failure")).contains("404"));
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("booker.ApiCall"))
+                .extracting(event -> event.getString("endpoint") + " " + event.getInt("status"))
+                .contains("createBooking 200", "getBooking 404");
+    }
+}
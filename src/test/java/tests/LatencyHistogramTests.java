@@ -0,0 +1,41 @@
+package tests;
+
+import load.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+public class LatencyHistogramTests {
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1_000_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertThat(histogram.count()).isEqualTo(1_000_000);
+        assertThat(histogram.percentile(50)).isCloseTo(500_000L, withinPercentage(1.6));
+        assertThat(histogram.percentile(99)).isCloseTo(990_000L, withinPercentage(1.6));
+        assertThat(histogram.percentile(99.9)).isCloseTo(999_000L, withinPercentage(1.6));
+        assertThat(histogram.max()).isEqualTo(1_000_000);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.addBuckets(histogram.buckets());
+        assertThat(merged.percentile(99)).isEqualTo(histogram.percentile(99));
+    }
+
+    /// One 1 s stall in a 10 ms closed loop hides 99 calls; the correction puts them back.
+    @Test
+    void correctionBackfillsCallsAStallHeldBack() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 900; i++) {
+            histogram.recordCorrected(1_000, 10_000);
+        }
+        histogram.recordCorrected(1_000_000, 10_000);
+
+        assertThat(histogram.count()).isEqualTo(1_000);
+        assertThat(histogram.percentile(95)).isGreaterThan(400_000);
+    }
+}
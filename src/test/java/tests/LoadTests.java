@@ -0,0 +1,154 @@
+package tests;
+
+import api.LatencyDistribution;
+import api.RestfulBookerApi;
+import api.RetrofitClient;
+import data.BookingData;
+import load.BookingOperations;
+import load.DistributedLoadReport;
+import load.Feeders;
+import load.LoadCoordinator;
+import load.LoadReport;
+import load.OpenLoadGenerator;
+import load.Phase;
+import load.Scenario;
+import load.Workload;
+import model.booking.CreateResponse;
+import model.booking.CreateUpdateRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import steps.AuthSteps;
+import steps.BookingSteps;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+/// Drives the booking API with an open-model load; run with `mvn test -Pload`
+/// (add -Pstand-in to target the local stand-in). Rate, duration and mix come from
+/// the load.* keys in [config.TestConfig]; the report goes to load.report.dir.
+@Tag("load")
+public class LoadTests extends BaseTest {
+    protected final String ACCEPT = "application/json";
+    protected final String LOGIN = "admin";
+    protected final String PASS = "password123";
+    protected final int SEED_BOOKINGS = 20;
+
+    private final RestfulBookerApi api =
+            RetrofitClient.getClient(
+                    RestfulBookerApi.class,
+                    config.baseUrl()
+            );
+
+    @Test
+    void openModelMix() throws Exception {
+        BookingSteps bookingSteps = new BookingSteps(api);
+
+        OpenLoadGenerator generator = new OpenLoadGenerator(
+                config.loadRate(), Duration.ofSeconds(config.loadDurationSeconds()))
+                .mix(config.loadMix(), BookingOperations.seeded(bookingSteps, SEED_BOOKINGS))
+                .maxOutstanding(config.loadMaxOutstanding())
+                .seed(config.loadSeed());
+
+        LoadReport report = generator.run();
+        System.out.print(report.toText());
+        report.write(Path.of(config.loadReportDir(), "open-model-mix.json"));
+
+        long attempted = report.getSucceeded() + report.getFailed() + report.getDropped();
+        assertThat(attempted).isCloseTo((long) (config.loadRate() * config.loadDurationSeconds()),
+                withinPercentage(5));
+        assertThat(report.getTotal().getErrorRate()).isLessThanOrEqualTo(config.loadMaxErrorRate());
+    }
+
+    /// The openModelMix load split over load.workers processes on this host, with
+    /// their histograms merged into one report.
+    @Test
+    void distributedOpenModel() throws Exception {
+        DistributedLoadReport report = new LoadCoordinator(
+                config.loadWorkers(), config.loadRate(), Duration.ofSeconds(config.loadDurationSeconds()))
+                .property("base.url", config.baseUrl())
+                .property("load.mix", config.loadMix())
+                .property("load.max.outstanding", config.loadMaxOutstanding())
+                .property("cleanup.enabled", config.cleanupEnabled())
+                .seed(config.loadSeed())
+                .maxScheduleLagMillis(config.loadMaxScheduleLagMs())
+                .logDir(Path.of(config.loadReportDir()))
+                .run();
+        System.out.print(report.toText());
+        report.write(Path.of(config.loadReportDir(), "distributed-open-model.json"));
+
+        LoadReport merged = report.getMerged();
+        long attempted = merged.getSucceeded() + merged.getFailed() + merged.getDropped();
+        assertThat(report.getWorkers()).allMatch(DistributedLoadReport.Worker::isComplete);
+        assertThat(attempted).isCloseTo((long) (config.loadRate() * config.loadDurationSeconds()),
+                withinPercentage(5));
+        assertThat(merged.getTotal().getErrorRate()).isLessThanOrEqualTo(config.loadMaxErrorRate());
+    }
+
+    /// Production-shaped mix: mostly reads, some creates, a few token-authenticated
+    /// update/delete journeys, through the phases in load.phases.
+    @Test
+    void scenarioMix() throws Exception {
+        BookingSteps bookingSteps = new BookingSteps(api);
+        AuthSteps authSteps = new AuthSteps(api);
+        LatencyDistribution think = LatencyDistribution.parse(config.loadThink());
+
+        List<BookingData> seeds = new ArrayList<>();
+        List<CreateUpdateRequest> bodies = new ArrayList<>();
+        for (int i = 0; i < SEED_BOOKINGS; i++) {
+            BookingData BookingData = new BookingData();
+            seeds.add(BookingData);
+            bodies.add(BookingData.defaultBooking());
+        }
+        List<Integer> ids = new CopyOnWriteArrayList<>();
+        for (CreateResponse created : bookingSteps.createAll(bodies)) {
+            ids.add(created.getBookingid());
+        }
+
+        Workload workload = new Workload()
+                .scenario(Scenario.named("browse", 45)
+                        .feed("guest", Feeders.circular(seeds))
+                        .exec("getBookingIds", session -> bookingSteps.getBookingListIdsAsync(
+                                session.<BookingData>get("guest").getFirstname(),
+                                session.<BookingData>get("guest").getLastname(), null, null))
+                        .pause(think)
+                        .feed("id", Feeders.random(ids))
+                        .exec("getBooking", session -> bookingSteps.getBookingByIdAsync(session.get("id"))))
+                .scenario(Scenario.named("lookup", 35)
+                        .feed("id", Feeders.random(ids))
+                        .exec("getBooking", session -> bookingSteps.getBookingByIdAsync(session.get("id"))))
+                .scenario(Scenario.named("book", 15)
+                        .feed("booking", Feeders.bookings())
+                        .exec("createBooking", session -> bookingSteps.createAsync(session.get("booking"))
+                                .thenAccept(created -> ids.add(created.getBookingid()))))
+                .scenario(Scenario.named("manage", 5)
+                        .exec("createToken", session -> authSteps.tokenCookieAsync(LOGIN, PASS)
+                                .thenAccept(cookie -> session.put("cookie", cookie)))
+                        .feed("booking", Feeders.bookings())
+                        .exec("createBooking", session -> bookingSteps.createAsync(session.get("booking"))
+                                .thenAccept(created -> session.put("managed", created.getBookingid())))
+                        .pause(think)
+                        .feed("update", Feeders.bookings())
+                        .exec("updateBooking", session -> bookingSteps.updateAsync(
+                                session.get("managed"), session.get("update"), session.get("cookie")))
+                        .pause(think)
+                        .exec("deleteBooking", session -> bookingSteps.deleteAsync(
+                                session.get("managed"), session.get("cookie"))))
+                .phases(Phase.parse(config.loadPhases()))
+                .maxOutstanding(config.loadMaxOutstanding())
+                .seed(config.loadSeed());
+
+        LoadReport report = config.loadModel().equals("concurrency")
+                ? workload.runAtConcurrency()
+                : workload.runAtRate();
+        System.out.print(report.toText());
+        report.write(Path.of(config.loadReportDir(), "scenario-mix.json"));
+
+        assertThat(report.getTotal().getErrorRate()).isLessThanOrEqualTo(config.loadMaxErrorRate());
+    }
+}
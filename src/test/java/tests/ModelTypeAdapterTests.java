@@ -0,0 +1,68 @@
+package tests;
+
+import api.ApiContext;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import model.auth.AuthRequest;
+import model.auth.AuthResponse;
+import model.booking.BookingDates;
+import model.booking.BookingResponse;
+import model.booking.CreateResponse;
+import model.booking.CreateUpdateRequest;
+import model.booking.GetBookingIDsResponse;
+import model.booking.PartialUpdateRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/// The client's model adapters against the wire format restful-booker uses.
+public class ModelTypeAdapterTests {
+
+    private static final String BOOKING = "{\"firstname\":\"Jim\",\"lastname\":\"Brown\",\"totalprice\":111,"
+            + "\"depositpaid\":true,\"bookingdates\":{\"checkin\":\"2018-01-01\",\"checkout\":\"2019-01-01\"},"
+            + "\"additionalneeds\":\"Breakfast\"}";
+
+    private final Gson gson = ApiContext.get().gson();
+
+    @Test
+    void bookingResponseReadsWireNames() {
+        BookingResponse booking = gson.fromJson(BOOKING, BookingResponse.class);
+
+        assertThat(booking.getTotalPrice()).isEqualTo(111);
+        assertThat(booking.getDepositPaid()).isTrue();
+        assertThat(booking.getAdditionalNeeds()).isEqualTo("Breakfast");
+        assertThat(booking.getBookingdates().getCheckout()).isEqualTo("2019-01-01");
+    }
+
+    @Test
+    void everyModelRoundTripsItsWireForm() {
+        Map<Class<?>, String> wire = Map.of(
+                BookingDates.class, "{\"checkin\":\"2018-01-01\",\"checkout\":\"2019-01-01\"}",
+                CreateUpdateRequest.class, BOOKING,
+                PartialUpdateRequest.class, "{\"firstname\":\"James\",\"totalprice\":222}",
+                BookingResponse.class, BOOKING,
+                CreateResponse.class, "{\"bookingid\":1,\"booking\":" + BOOKING + "}",
+                GetBookingIDsResponse.class, "{\"bookingid\":7}",
+                AuthRequest.class, "{\"username\":\"admin\",\"password\":\"password123\"}",
+                AuthResponse.class, "{\"token\":\"abc123\"}");
+
+        wire.forEach((model, json) -> {
+            assertThat(gson.getAdapter(model).getClass().getName()).as(model.getSimpleName())
+                    .doesNotContain("Reflective");
+            assertThat(JsonParser.parseString(gson.toJson(gson.fromJson(json, model))))
+                    .as(model.getSimpleName())
+                    .isEqualTo(JsonParser.parseString(json));
+        });
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        assertThatThrownBy(() -> gson.fromJson("{\"totalPrice\":111}", BookingResponse.class))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("totalPrice");
+    }
+}
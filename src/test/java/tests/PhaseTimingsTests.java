@@ -0,0 +1,98 @@
+package tests;
+
+import api.ConnectionStats;
+import api.PhaseTimings;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.Test;
+import server.StandInServer;
+import store.IndexedBookingStore;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PhaseTimingsTests {
+
+    /// The first call opens a connection and the second reuses it; with a zero
+    /// threshold both are kept as slow calls with their phase breakdown.
+    @Test
+    void recordsPhasesAndConnectionReuse() throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        ConnectionStats stats = new ConnectionStats();
+        PhaseTimings timings = new PhaseTimings(stats, 0);
+        OkHttpClient client = new OkHttpClient.Builder().eventListenerFactory(timings).build();
+        try {
+            for (int i = 0; i < 2; i++) {
+                try (Response response = client.newCall(new Request.Builder()
+                        .url(server.baseUrl() + "booking").build()).execute()) {
+                    assertThat(response.body().string()).startsWith("[");
+                }
+            }
+        } finally {
+            client.connectionPool().evictAll();
+            server.stop();
+        }
+
+        PhaseTimings.Report report = timings.report();
+        assertThat(report.getEndpoints()).hasSize(1);
+        PhaseTimings.EndpointReport endpoint = report.getEndpoints().get(0);
+        assertThat(endpoint.getCalls()).isEqualTo(2);
+        assertThat(endpoint.getOpened()).isEqualTo(1);
+        assertThat(endpoint.getReused()).isEqualTo(1);
+        assertThat(endpoint.getPhases().get(1)).as("connect").isNotEqualTo("-");
+        assertThat(endpoint.getPhases().get(2)).as("no TLS on loopback").isEqualTo("-");
+        assertThat(endpoint.getPhases().get(4)).as("ttfb").isNotEqualTo("-");
+
+        assertThat(report.getSlowCallCount()).isEqualTo(2);
+        PhaseTimings.SlowCall first = report.getSlowCalls().get(0);
+        PhaseTimings.SlowCall second = report.getSlowCalls().get(1);
+        assertThat(first.isReused()).isFalse();
+        assertThat(first.getConnectMillis()).isNotNegative();
+        assertThat(second.isReused()).isTrue();
+        assertThat(second.getConnectMillis()).isEqualTo(-1);
+        assertThat(second.getTtfbMillis()).isNotNegative();
+        assertThat(report.toText()).contains("pooled connection", "new connection");
+
+        assertThat(stats.calls()).isEqualTo(2);
+        assertThat(stats.connectionsOpened()).isEqualTo(1);
+        assertThat(stats.connectionsReused()).isEqualTo(1);
+    }
+
+    /// Time the server spends before answering lands in ttfb, not between phases.
+    @Test
+    void ttfbIncludesTheServersWait() throws Exception {
+        long sleepMillis = 300;
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "slow".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        PhaseTimings timings = new PhaseTimings(new ConnectionStats(), 0);
+        OkHttpClient client = new OkHttpClient.Builder().eventListenerFactory(timings).build();
+        try (Response response = client.newCall(new Request.Builder()
+                .url("http://127.0.0.1:" + server.getAddress().getPort() + "/slow").build()).execute()) {
+            assertThat(response.body().string()).isEqualTo("slow");
+        } finally {
+            client.connectionPool().evictAll();
+            server.stop(0);
+        }
+
+        PhaseTimings.SlowCall call = timings.report().getSlowCalls().get(0);
+        assertThat(call.getTtfbMillis()).isGreaterThanOrEqualTo(sleepMillis);
+        assertThat(call.getReadMillis()).isNotNegative().isLessThan(sleepMillis);
+    }
+}
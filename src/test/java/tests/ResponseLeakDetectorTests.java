@@ -0,0 +1,52 @@
+package tests;
+
+import api.ResponseLeakDetector;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.Test;
+import server.StandInServer;
+import store.IndexedBookingStore;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResponseLeakDetectorTests {
+
+    /// An unclosed body is reported once, with its test and the caller's stack, and
+    /// holds its connection until closed; closed bodies are never reported.
+    @Test
+    void reportsBodiesLeftOpen() throws Exception {
+        StandInServer server = new StandInServer(new IndexedBookingStore(), "admin", "password123").start(0);
+        ResponseLeakDetector detector = new ResponseLeakDetector(ResponseLeakDetector.Mode.WARN);
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(detector).build();
+        detector.watch(client);
+        Request ping = new Request.Builder().url(server.baseUrl() + "ping").build();
+        ResponseLeakDetector.Scope scope = new ResponseLeakDetector.Scope("reportsBodiesLeftOpen");
+        ResponseLeakDetector.start(scope);
+        try {
+            try (Response closed = client.newCall(ping).execute()) {
+                assertThat(closed.code()).isEqualTo(201);
+            }
+            Response leaked = client.newCall(ping).execute();
+            assertThat(detector.poolGauge()).startsWith("connections in use 1 of 1");
+
+            List<String> leaks = detector.leaks(scope);
+            assertThat(leaks).singleElement().asString()
+                    .contains("GET " + server.baseUrl() + "ping -> 201", "opened by reportsBodiesLeftOpen",
+                            "ResponseLeakDetectorTests.reportsBodiesLeftOpen");
+            assertThat(detector.leaks(scope)).as("reported once").isEmpty();
+            assertThat(detector.report(leaks)).startsWith("1 response body never closed");
+
+            leaked.close();
+            assertThat(detector.poolGauge()).startsWith("connections in use 0 of 1 (peak 1)");
+            client.newCall(ping).execute().close();
+            assertThat(detector.leaks(null)).isEmpty();
+        } finally {
+            ResponseLeakDetector.stop();
+            client.connectionPool().evictAll();
+            server.stop();
+        }
+    }
+}
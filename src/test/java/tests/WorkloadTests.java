@@ -0,0 +1,160 @@
+package tests;
+
+import api.LatencyDistribution;
+import load.Feeders;
+import load.LoadReport;
+import load.Phase;
+import load.Scenario;
+import load.Workload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/// Workloads without a server, against calls that complete at once: phase shapes,
+/// per-exec reporting, and runs that end early, which are finished and reported
+/// rather than left outstanding until the drain timeout.
+public class WorkloadTests {
+
+    @Test
+    void parsesPhases() {
+        List<Phase> phases = Phase.parse("ramp(1,50,30s); soak(50,10m);step(50,200,4,2m);spike(50,400,10s,1m);soak(5,250ms)");
+
+        assertThat(phases).extracting(Phase::duration).containsExactly(Duration.ofSeconds(30),
+                Duration.ofMinutes(10), Duration.ofMinutes(2), Duration.ofMinutes(1), Duration.ofMillis(250));
+        assertThat(phases.get(0).level(0)).isEqualTo(1);
+        assertThat(phases.get(1).level(Duration.ofMinutes(5).toNanos())).isEqualTo(50);
+        assertThat(phases.get(2).level(Duration.ofMinutes(2).toNanos())).isEqualTo(200);
+        assertThat(phases.get(3).level(Duration.ofSeconds(30).toNanos())).isEqualTo(400);
+        assertThat(Phase.parse(" ; ")).isEmpty();
+        assertThatThrownBy(() -> Phase.parse("hold(5,1s)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Phase.parse("soak 5,1s")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Phase.parse("soak(5,1d)")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void phaseLevels() {
+        Phase ramp = Phase.ramp(0, 100, Duration.ofSeconds(10));
+        assertThat(ramp.level(0)).isEqualTo(0);
+        assertThat(ramp.level(seconds(2.5))).isCloseTo(25, within(1e-9));
+        assertThat(ramp.level(seconds(10))).isEqualTo(100);
+        assertThat(ramp.level(seconds(20))).as("held past the end").isEqualTo(100);
+
+        Phase step = Phase.step(0, 30, 4, Duration.ofSeconds(4));
+        assertThat(step.level(0)).isEqualTo(0);
+        assertThat(step.level(seconds(1.5))).isEqualTo(10);
+        assertThat(step.level(seconds(2.5))).isEqualTo(20);
+        assertThat(step.level(seconds(3.9))).isEqualTo(30);
+        assertThat(step.level(seconds(4))).as("the last stair holds at the end").isEqualTo(30);
+        assertThat(Phase.step(0, 30, 1, Duration.ofSeconds(4)).level(0)).isEqualTo(30);
+
+        Phase spike = Phase.spike(10, 100, Duration.ofSeconds(2), Duration.ofSeconds(10));
+        assertThat(spike.level(seconds(3.9))).isEqualTo(10);
+        assertThat(spike.level(seconds(4.1))).isEqualTo(100);
+        assertThat(spike.level(seconds(5.9))).isEqualTo(100);
+        assertThat(spike.level(seconds(6.1))).isEqualTo(10);
+    }
+
+    /// Feed, exec, pause, exec at 50 starts a second for a second: every start
+    /// reaches both execs, each recorded on its own row with the fed value.
+    @Test
+    @Timeout(10)
+    void reportsEachExecAtTheConfiguredRate() {
+        List<Object> seen = Collections.synchronizedList(new ArrayList<>());
+        LoadReport report = new Workload()
+                .scenario(Scenario.named("browse", 1)
+                        .feed("id", Feeders.circular(List.of(1, 2, 3)))
+                        .exec("getBookingIds", session -> CompletableFuture.completedFuture(null))
+                        .pause(LatencyDistribution.parse("uniform(5,20)"))
+                        .exec("getBooking", session -> {
+                            seen.add(session.get("id"));
+                            return CompletableFuture.completedFuture(null);
+                        }))
+                .phase(Phase.soak(50, Duration.ofSeconds(1)))
+                .runAtRate();
+
+        assertThat(report.getUnfinished()).isZero();
+        assertThat(report.getFailed()).isZero();
+        assertThat(report.getEndpoints()).extracting(LoadReport.Endpoint::getName)
+                .containsExactly("getBooking", "getBookingIds");
+        assertThat(report.getEndpoints()).allSatisfy(endpoint -> {
+            assertThat(endpoint.getSucceeded()).isEqualTo(50);
+            assertThat(endpoint.getThroughput()).isBetween(25.0, 50.0);
+        });
+        assertThat(seen).hasSize(50).containsOnly(1, 2, 3);
+    }
+
+    /// The same seed feeds the same random values.
+    @Test
+    @Timeout(10)
+    void seedReproducesRandomFeeds() {
+        List<Integer> values = IntStream.range(0, 1000).boxed().toList();
+        List<List<Object>> runs = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            List<Object> fed = Collections.synchronizedList(new ArrayList<>());
+            new Workload()
+                    .scenario(Scenario.named("lookup", 1)
+                            .feed("id", Feeders.random(values))
+                            .exec("getBooking", session -> {
+                                fed.add(session.get("id"));
+                                return CompletableFuture.completedFuture(null);
+                            }))
+                    .phase(Phase.soak(100, Duration.ofMillis(200)))
+                    .seed(7)
+                    .runAtRate();
+            runs.add(fed);
+        }
+
+        assertThat(runs.get(0)).hasSize(20).isEqualTo(runs.get(1));
+    }
+
+    /// A feeder that throws ends its run as a failure at either model.
+    @Test
+    @Timeout(10)
+    void failingFeederFailsTheRun() {
+        for (boolean atRate : new boolean[]{true, false}) {
+            Workload workload = new Workload()
+                    .scenario(Scenario.named("lookup", 1)
+                            .feed("id", Feeders.random(List.of()))
+                            .exec("getBooking", session -> CompletableFuture.completedFuture(null)))
+                    .phase(Phase.soak(20, Duration.ofMillis(300)));
+            LoadReport report = atRate ? workload.runAtRate() : workload.runAtConcurrency();
+
+            assertThat(report.getUnfinished()).isZero();
+            assertThat(report.getSucceeded()).isZero();
+            assertThat(report.getEndpoints()).singleElement()
+                    .satisfies(endpoint -> assertThat(endpoint.getName()).isEqualTo("feed id"))
+                    .satisfies(endpoint -> assertThat(endpoint.getFailed()).isPositive());
+        }
+    }
+
+    /// Virtual users whose first call fails while being sent keep cycling without
+    /// growing the stack, and all stop when the phases end.
+    @Test
+    @Timeout(10)
+    void usersSurviveCallsFailingAtOnce() {
+        LoadReport report = new Workload()
+                .scenario(Scenario.named("create", 1)
+                        .exec("createBooking", session -> {
+                            throw new IllegalStateException("no connection");
+                        }))
+                .phase(Phase.soak(4, Duration.ofMillis(300)))
+                .runAtConcurrency();
+
+        assertThat(report.getUnfinished()).isZero();
+        assertThat(report.getFailed()).as("users start again after failing").isGreaterThan(4);
+    }
+
+    private static long seconds(double seconds) {
+        return (long) (seconds * 1e9);
+    }
+}